@@ -0,0 +1,39 @@
+import bench.AllocationBenchmark;
+import bench.BatchBenchmark;
+import bench.CsrBenchmark;
+import bench.HeapBenchmark;
+import bench.HierarchicalBenchmark;
+import bench.LandmarkBenchmark;
+import bench.PathOutputBenchmark;
+import bench.PointToPointBenchmark;
+import bench.ReplanningBenchmark;
+import bench.ScenarioBenchmark;
+import bench.SeparatedBenchmark;
+import bench.TerrainBenchmark;
+
+/**
+ * Runs every feature benchmark in the bench package one after the other. With a map and a scenario file as
+ * arguments it replays the scenarios instead. They only time, nothing is checked.
+ */
+public class Benchmark {
+
+    public static void main(String[] args){
+        if (args.length == 2) {
+            ScenarioBenchmark.main(args);
+            return;
+        }
+
+        String[] none = new String[0];
+        HeapBenchmark.main(none);
+        PointToPointBenchmark.main(none);
+        AllocationBenchmark.main(none);
+        BatchBenchmark.main(none);
+        CsrBenchmark.main(none);
+        ReplanningBenchmark.main(none);
+        HierarchicalBenchmark.main(none);
+        SeparatedBenchmark.main(none);
+        LandmarkBenchmark.main(none);
+        TerrainBenchmark.main(none);
+        PathOutputBenchmark.main(none);
+    }
+}
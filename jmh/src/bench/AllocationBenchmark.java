@@ -0,0 +1,49 @@
+package bench;
+
+import core.graph.Graph;
+import core.graph.GridGraph;
+import core.path.AStar;
+import core.path.BFS;
+import core.path.BellmanFord;
+import core.path.BidirectionalBFS;
+import core.path.BidirectionalDijkstra;
+import core.path.DFS;
+import core.path.Dijkstra;
+import core.path.JumpPointSearch;
+import core.path.PathFindingAlgorithm;
+
+/**
+ * Bytes allocated per query on a graph of a size seen before, once the workspace has grown.
+ */
+public final class AllocationBenchmark {
+
+    private AllocationBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        run(200, 0.2);
+    }
+
+    private static void run(int n, double density) {
+        Graph g = new GridGraph(Timing.randomGrid(n, density, 3), true);
+        int start = 0;
+        int end = (n * n) - 1;
+
+        System.out.println();
+        System.out.println("Allocation per query after warm-up, " + n + "x" + n);
+        System.out.printf("%22s %14s%n", "algorithm", "bytes/query");
+
+        PathFindingAlgorithm[] algorithms = {new DFS(), new BFS(), new BidirectionalBFS(), new Dijkstra(),
+                new BidirectionalDijkstra(), new BellmanFord(), new AStar(), new JumpPointSearch()};
+        for (PathFindingAlgorithm algo : algorithms) {
+            for (int i = 0; i < Timing.WARMUP; i++)
+                algo.solve(g, start, end);
+
+            long before = Timing.allocatedBytes();
+            for (int i = 0; i < Timing.RUNS; i++)
+                algo.solve(g, start, end);
+            long perQuery = (Timing.allocatedBytes() - before) / Timing.RUNS;
+            System.out.printf("%22s %14d%n", algo.getClass().getSimpleName(), perQuery);
+        }
+    }
+}
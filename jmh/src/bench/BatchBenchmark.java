@@ -0,0 +1,53 @@
+package bench;
+
+import core.graph.Graph;
+import core.graph.GridGraph;
+import core.path.AStar;
+import core.path.BatchPathService;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Throughput of random A* queries through {@link BatchPathService}, on one thread and on every core.
+ */
+public final class BatchBenchmark {
+
+    private BatchBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        run(300, 0.2, 1000);
+    }
+
+    private static void run(int n, double density, int queries) {
+        Graph g = new GridGraph(Timing.randomGrid(n, density, 11), true);
+        Random random = new Random(5);
+        int[] starts = new int[queries];
+        int[] ends = new int[queries];
+        for (int i = 0; i < queries; i++) {
+            starts[i] = random.nextInt(n * n);
+            ends[i] = random.nextInt(n * n);
+        }
+
+        System.out.println();
+        System.out.println("Batch of " + queries + " A* queries, " + n + "x" + n);
+        System.out.printf("%8s %16s%n", "threads", "queries/s");
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads : new int[]{1, cores}) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            BatchPathService service = new BatchPathService(g, AStar::new, pool);
+            service.solveAll(starts, ends);
+
+            long begin = System.nanoTime();
+            service.solveAll(starts, ends);
+            double seconds = (System.nanoTime() - begin) / 1e9;
+            pool.shutdown();
+
+            System.out.printf("%8d %16.0f%n", threads, queries / seconds);
+            if (cores == 1)
+                break;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package bench;
+
+import core.graph.BitGrid;
+import core.graph.CsrGraph;
+import core.graph.GridGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Building each grid representation from the generated layout.
+ */
+public class ConstructionBenchmark extends GridBenchmark {
+
+    @Benchmark
+    public BitGrid bitGrid() {
+        return new BitGrid(cells);
+    }
+
+    @Benchmark
+    public GridGraph gridGraph() {
+        return new GridGraph(bits, diagonal);
+    }
+
+    @Benchmark
+    public CsrGraph csrGraph() {
+        return new CsrGraph(bits, diagonal);
+    }
+}
@@ -0,0 +1,104 @@
+package bench;
+
+import core.graph.BitGrid;
+import core.graph.CsrGraph;
+import core.graph.GridRowReader;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Building a {@link CsrGraph} from memory and from a row stream, and toggling one of its cells in place against
+ * rebuilding it.
+ */
+public final class CsrBenchmark {
+
+    private CsrBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        construction(2000, 0.2);
+        editing(1000, 0.2, 1000);
+    }
+
+    private static void construction(int n, double density) {
+        boolean[][] grid = Timing.randomGrid(n, density, 13);
+
+        System.out.println();
+        System.out.println("CsrGraph construction, " + n + "x" + n + ", " + Math.round(density * 100) + "% obstacles");
+        System.out.printf("%22s %14s%n", "source", "8-way (ms)");
+
+        for (int i = 0; i < Timing.WARMUP; i++)
+            new CsrGraph(grid, true);
+        long begin = System.nanoTime();
+        for (int i = 0; i < Timing.RUNS; i++)
+            new CsrGraph(grid, true);
+        System.out.printf("%22s %14.3f%n", "boolean[][]", (System.nanoTime() - begin) / (Timing.RUNS * 1e6));
+
+        try {
+            for (int i = 0; i < Timing.WARMUP; i++)
+                CsrGraph.fromRows(rows(grid), true);
+            begin = System.nanoTime();
+            for (int i = 0; i < Timing.RUNS; i++)
+                CsrGraph.fromRows(rows(grid), true);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        System.out.printf("%22s %14.3f%n", "GridRowReader", (System.nanoTime() - begin) / (Timing.RUNS * 1e6));
+    }
+
+    private static void editing(int n, double density, int edits) {
+        BitGrid grid = new BitGrid(Timing.randomGrid(n, density, 23));
+        CsrGraph edited = new CsrGraph(grid, true);
+        Random random = new Random(29);
+
+        long rebuildNanos = 0;
+        long editNanos = 0;
+        for (int i = 0; i < edits; i++) {
+            int x = random.nextInt(n);
+            int y = random.nextInt(n);
+            boolean blocked = grid.isOpen(x, y);
+
+            long begin = System.nanoTime();
+            edited.setBlocked(x, y, blocked);
+            editNanos += System.nanoTime() - begin;
+
+            grid.setBlocked(x, y, blocked);
+            if (i < Timing.RUNS) {
+                begin = System.nanoTime();
+                new CsrGraph(grid, true);
+                rebuildNanos += System.nanoTime() - begin;
+            }
+        }
+
+        System.out.println();
+        System.out.println("Toggling one cell of a CsrGraph, " + n + "x" + n + ", 8-way");
+        System.out.printf("%22s %14s%n", "update", "avg (ms)");
+        System.out.printf("%22s %14.3f%n", "rebuild", rebuildNanos / (Timing.RUNS * 1e6));
+        System.out.printf("%22s %14.5f%n", "setBlocked", editNanos / (edits * 1e6));
+    }
+
+    private static GridRowReader rows(boolean[][] grid) {
+        return new GridRowReader() {
+            private int y;
+
+            @Override
+            public int getWidth() {
+                return grid[0].length;
+            }
+
+            @Override
+            public int getHeight() {
+                return grid.length;
+            }
+
+            @Override
+            public boolean readRow(boolean[] row) {
+                if (y == grid.length)
+                    return false;
+                System.arraycopy(grid[y++], 0, row, 0, row.length);
+                return true;
+            }
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package bench;
+
+import core.graph.BitGrid;
+import core.graph.CsrGraph;
+import core.graph.Graph;
+import core.graph.GridGraph;
+import core.graph.Layout;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grid every JMH benchmark runs on, one for each combination of the parameters. Throughput and average time are
+ * both reported; run with {@code -prof gc} for the allocation rate and bytes per operation.
+ * <p>
+ * The maze ignores the density, so its runs for different densities measure the same grid.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class GridBenchmark {
+
+    /** Grid side length. */
+    @Param({"100", "300"})
+    public int size;
+
+    /** Obstacle probability of the random layout. */
+    @Param({"0.1", "0.3"})
+    public double density;
+
+    /** Whether diagonal moves are allowed. */
+    @Param({"false", "true"})
+    public boolean diagonal;
+
+    /** {@link Layout} the grid is generated with. */
+    @Param({"random", "maze"})
+    public String layout;
+
+    /** Graph the searches run on, {@link GridGraph} or {@link CsrGraph}. */
+    @Param({"grid", "csr"})
+    public String graph;
+
+    protected boolean[][] cells;
+    protected BitGrid bits;
+    protected Graph g;
+
+    @Setup
+    public void buildGrid() {
+        cells = Layout.valueOf(layout.toUpperCase()).generate(size, density, 42);
+        bits = new BitGrid(cells);
+        g = graph.equals("csr") ? new CsrGraph(bits, diagonal) : new GridGraph(bits, diagonal);
+        prepare();
+    }
+
+    /**
+     * Called once the grid is built, for inputs that depend on it.
+     */
+    protected void prepare() {
+    }
+}
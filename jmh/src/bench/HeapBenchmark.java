@@ -0,0 +1,101 @@
+package bench;
+
+import core.graph.Graph;
+import core.graph.GridGraph;
+import core.path.Dijkstra;
+import core.path.PathFindingAlgorithm;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra with its indexed heap against the previous one, which scanned every node for the closest unvisited one.
+ */
+public final class HeapBenchmark {
+
+    private HeapBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        System.out.println("Dijkstra, random 20% obstacles, corner to corner");
+        System.out.printf("%8s %14s %14s %10s%n", "size", "linear (ms)", "heap (ms)", "speedup");
+
+        for (int n : new int[]{50, 100, 200}) {
+            Graph g = new GridGraph(Timing.randomGrid(n, 0.2, 42), false);
+            double linearMs = Timing.time(new LinearScanDijkstra(), g, 0);
+            double heapMs = Timing.time(new Dijkstra(), g, 0);
+            System.out.printf("%8s %14.3f %14.3f %9.1fx%n", n + "x" + n, linearMs, heapMs, linearMs / heapMs);
+        }
+    }
+
+    /**
+     * The previous Dijkstra, which looks for the closest unvisited node with a scan over all nodes. Kept as a baseline.
+     */
+    private static final class LinearScanDijkstra implements PathFindingAlgorithm {
+
+        private int[] distance;
+        private int[] prev;
+        private boolean[] visited;
+        private int inf;
+
+        @Override
+        public void solve(Graph g, int start) {
+            int size = g.getSize();
+            inf = size + 1;
+            distance = new int[size];
+            prev = new int[size];
+            visited = new boolean[size];
+            int[] neighbors = new int[g.maxDegree()];
+
+            Arrays.fill(distance, -1);
+            for (int v : g.getVertexList()) {
+                distance[v] = inf;
+                prev[v] = -1;
+            }
+            distance[start] = 0;
+
+            int current = getMinDistanceNode();
+            while (current != -1){
+                visited[current] = true;
+                int count = g.neighbors(current, neighbors);
+                for (int i = 0; i < count; i++){
+                    int neigh = neighbors[i];
+                    int temp = distance[current] + 1;
+                    if (temp < distance[neigh]) {
+                        distance[neigh] = temp;
+                        prev[neigh] = current;
+                    }
+                }
+                current = getMinDistanceNode();
+            }
+        }
+
+        private int getMinDistanceNode(){
+            int min = inf;
+            int minNode = -1;
+            for (int i = 0; i < distance.length; i++) {
+                if (!visited[i] && distance[i] < min && distance[i] >= 0) {
+                    min = distance[i];
+                    minNode = i;
+                }
+            }
+            return minNode;
+        }
+
+        @Override
+        public boolean checkPath(int end) {
+            return visited[end];
+        }
+
+        @Override
+        public int[] getPath(int start, int end) {
+            int length = 1;
+            for (int cur = end; cur != start; cur = prev[cur])
+                length++;
+            int[] path = new int[length];
+            for (int cur = end; cur != start; cur = prev[cur])
+                path[--length] = cur;
+            path[0] = start;
+            return path;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package bench;
+
+import core.graph.BitGrid;
+import core.graph.Graph;
+import core.graph.GridGraph;
+import core.path.AStar;
+import core.path.HPAStar;
+import core.path.SearchResult;
+
+import java.util.Random;
+
+/**
+ * HPA* against A* on random queries: build time, query time, and how much longer the hierarchical paths are.
+ * Then some cells toggle and the abstraction is patched up.
+ */
+public final class HierarchicalBenchmark {
+
+    private HierarchicalBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        run(2000, 0.2, 200);
+    }
+
+    private static void run(int n, double density, int queries) {
+        Graph g = new GridGraph(new BitGrid(Timing.randomGrid(n, density, 31)), true);
+        Random random = new Random(37);
+        int[] starts = new int[queries];
+        int[] ends = new int[queries];
+        for (int q = 0; q < queries; q++) {
+            starts[q] = Timing.randomOpen(g, random);
+            ends[q] = Timing.randomOpen(g, random);
+        }
+
+        AStar aStar = new AStar();
+        HPAStar hierarchical = new HPAStar();
+        long begin = System.nanoTime();
+        hierarchical.plan(g, starts[0], ends[0]);
+        double buildMs = (System.nanoTime() - begin) / 1e6;
+
+        long exactNanos = 0;
+        long planNanos = 0;
+        long solveNanos = 0;
+        double ratioSum = 0;
+        double ratioMax = 1;
+        int compared = 0;
+        for (int q = 0; q < queries; q++) {
+            begin = System.nanoTime();
+            SearchResult exact = aStar.solve(g, starts[q], ends[q]);
+            exactNanos += System.nanoTime() - begin;
+
+            begin = System.nanoTime();
+            hierarchical.plan(g, starts[q], ends[q]);
+            planNanos += System.nanoTime() - begin;
+
+            begin = System.nanoTime();
+            SearchResult found = hierarchical.solve(g, starts[q], ends[q]);
+            solveNanos += System.nanoTime() - begin;
+
+            if (exact.getCost() > 0) {
+                double ratio = (double) found.getCost() / exact.getCost();
+                ratioSum += ratio;
+                ratioMax = Math.max(ratioMax, ratio);
+                compared++;
+            }
+        }
+
+        int edits = 100;
+        int timed = 0;
+        long rebuildNanos = 0;
+        for (int i = 0; i < edits; i++) {
+            int x = random.nextInt(n);
+            int y = random.nextInt(n);
+            g.setBlocked(x, y, g.isOpen(x, y));
+            hierarchical.cellChanged(x, y);
+
+            int q = i % queries;
+            if (!g.isOpen(starts[q] % n, starts[q] / n) || !g.isOpen(ends[q] % n, ends[q] / n))
+                continue;
+            begin = System.nanoTime();
+            hierarchical.solve(g, starts[q], ends[q]);
+            rebuildNanos += System.nanoTime() - begin;
+            timed++;
+        }
+
+        System.out.println();
+        System.out.println("Hierarchical search, " + n + "x" + n + ", " + Math.round(density * 100) + "% obstacles, "
+                + queries + " queries, 8-way, clusters of " + hierarchical.getClusterSize() + ", "
+                + hierarchical.getAbstractNodeCount() + " abstract nodes");
+        System.out.printf("%22s %14s%n", "step", "avg (ms)");
+        System.out.printf("%22s %14.3f%n", "HPA* build", buildMs);
+        System.out.printf("%22s %14.3f%n", "AStar", exactNanos / (queries * 1e6));
+        System.out.printf("%22s %14.3f%n", "HPA* plan", planNanos / (queries * 1e6));
+        System.out.printf("%22s %14.3f%n", "HPA* plan and refine", solveNanos / (queries * 1e6));
+        System.out.printf("%22s %14.3f%n", "HPA* after an edit", rebuildNanos / (Math.max(1, timed) * 1e6));
+        System.out.printf("Path cost over optimal: mean %.3f, max %.3f%n", ratioSum / Math.max(1, compared), ratioMax);
+    }
+}
@@ -0,0 +1,92 @@
+package bench;
+
+import core.graph.Graph;
+import core.graph.GridGraph;
+import core.graph.Layout;
+import core.path.AStar;
+import core.path.Landmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * A* with the grid heuristic against A* with ALT landmarks on a maze, where the grid distance is far below the
+ * real one. Also times computing the tables and reading them back from disk.
+ */
+public final class LandmarkBenchmark {
+
+    private LandmarkBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        run(1001, 16, 200);
+    }
+
+    private static void run(int n, int count, int queries) {
+        Graph g = new GridGraph(Layout.MAZE.generate(n, 0, 47), false);
+        Random random = new Random(53);
+        int[] starts = new int[queries];
+        int[] ends = new int[queries];
+        for (int q = 0; q < queries; q++) {
+            starts[q] = Timing.randomOpen(g, random);
+            ends[q] = Timing.randomOpen(g, random);
+        }
+
+        long begin = System.nanoTime();
+        Landmarks alt = Landmarks.compute(g, count);
+        double buildMs = (System.nanoTime() - begin) / 1e6;
+
+        double saveMs;
+        double loadMs;
+        try {
+            Path file = Files.createTempFile("landmarks", ".alt");
+            try {
+                begin = System.nanoTime();
+                alt.save(file);
+                saveMs = (System.nanoTime() - begin) / 1e6;
+                begin = System.nanoTime();
+                alt = Landmarks.load(file, g);
+                loadMs = (System.nanoTime() - begin) / 1e6;
+            } finally {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        System.out.println();
+        System.out.println("ALT on a maze, " + n + "x" + n + ", " + alt.getCount() + " landmarks, " + queries
+                + " queries, 4-way");
+        System.out.printf("%22s %14s%n", "step", "ms");
+        System.out.printf("%22s %14.3f%n", "compute", buildMs);
+        System.out.printf("%22s %14.3f%n", "save", saveMs);
+        System.out.printf("%22s %14.3f%n", "load", loadMs);
+
+        AStar grid = new AStar();
+        AStar landmarks = new AStar(alt);
+        long gridNanos = 0;
+        long landmarkNanos = 0;
+        long gridExpanded = 0;
+        long landmarkExpanded = 0;
+        grid.solve(g, starts[0], ends[0]);
+        landmarks.solve(g, starts[0], ends[0]);
+        for (int q = 0; q < queries; q++) {
+            begin = System.nanoTime();
+            grid.solve(g, starts[q], ends[q]);
+            gridNanos += System.nanoTime() - begin;
+            gridExpanded += grid.getStats().getNodesExpanded();
+
+            begin = System.nanoTime();
+            landmarks.solve(g, starts[q], ends[q]);
+            landmarkNanos += System.nanoTime() - begin;
+            landmarkExpanded += landmarks.getStats().getNodesExpanded();
+        }
+
+        System.out.printf("%22s %14s %14s%n", "heuristic", "avg (ms)", "expanded");
+        System.out.printf("%22s %14.3f %14d%n", "grid", gridNanos / (queries * 1e6), gridExpanded / queries);
+        System.out.printf("%22s %14.3f %14d%n", "landmarks", landmarkNanos / (queries * 1e6),
+                landmarkExpanded / queries);
+    }
+}
@@ -0,0 +1,64 @@
+package bench;
+
+import core.graph.Graph;
+import core.graph.GridGraph;
+import core.path.AStar;
+import core.path.PathFindingAlgorithm;
+import core.path.Waypoints;
+
+/**
+ * Size and allocation of one long path in each output form: the boxed backtrace, the int[] path, its turning
+ * points and the string-pulled waypoints.
+ */
+public final class PathOutputBenchmark {
+
+    private static final String[] FORMS = {"List<Integer>", "int[]", "turning points", "smoothed"};
+
+    private PathOutputBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        run(2000, 0.05);
+    }
+
+    private static void run(int n, double density) {
+        Graph g = new GridGraph(Timing.randomGrid(n, density, 71), true);
+        int start = 0;
+        int end = (n * n) - 1;
+        AStar algo = new AStar();
+        if (!algo.solve(g, start, end).isReachable())
+            throw new IllegalStateException("No path corner to corner");
+
+        System.out.println();
+        System.out.println("Path output, " + n + "x" + n + ", " + Math.round(density * 100) + "% obstacles, "
+                + "corner to corner, 8-way");
+        System.out.printf("%22s %10s %14s %14s%n", "form", "nodes", "bytes", "avg (ms)");
+        for (int form = 0; form < FORMS.length; form++) {
+            int nodes = 0;
+            for (int i = 0; i < Timing.WARMUP; i++)
+                nodes = outputForm(algo, g, start, end, form);
+
+            long before = Timing.allocatedBytes();
+            long begin = System.nanoTime();
+            for (int i = 0; i < Timing.RUNS; i++)
+                outputForm(algo, g, start, end, form);
+            double ms = (System.nanoTime() - begin) / (Timing.RUNS * 1e6);
+            long bytes = (Timing.allocatedBytes() - before) / Timing.RUNS;
+
+            System.out.printf("%22s %10d %14d %14.3f%n", FORMS[form], nodes, bytes, ms);
+        }
+    }
+
+    private static int outputForm(PathFindingAlgorithm algo, Graph g, int start, int end, int form) {
+        switch (form) {
+            case 0:
+                return algo.getBacktrace(start, end).size() + 2;
+            case 1:
+                return algo.getPath(start, end).length;
+            case 2:
+                return Waypoints.turningPoints(algo.getPath(start, end), g.getWidth()).length;
+            default:
+                return Waypoints.smooth(g, algo.getPath(start, end)).length;
+        }
+    }
+}
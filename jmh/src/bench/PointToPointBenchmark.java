@@ -0,0 +1,43 @@
+package bench;
+
+import core.graph.GridGraph;
+import core.path.AStar;
+import core.path.BFS;
+import core.path.BidirectionalBFS;
+import core.path.BidirectionalDijkstra;
+import core.path.Dijkstra;
+import core.path.JumpPointSearch;
+import core.path.PathFindingAlgorithm;
+
+/**
+ * Targeted searches on a query between two points a tenth of the map apart, on an open map.
+ */
+public final class PointToPointBenchmark {
+
+    private PointToPointBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        run(500, 0.1);
+    }
+
+    private static void run(int n, double density) {
+        boolean[][] grid = Timing.randomGrid(n, density, 7);
+        int start = ((n / 2) * n) + (n / 2);
+        int end = start + (n / 10);
+        grid[start / n][start % n] = true;
+        grid[end / n][end % n] = true;
+
+        System.out.println();
+        System.out.println("Point to point, " + n + "x" + n + ", " + Math.round(density * 100) + "% obstacles");
+        System.out.printf("%22s %14s %14s%n", "algorithm", "4-way (ms)", "8-way (ms)");
+
+        PathFindingAlgorithm[] algorithms = {new BFS(), new BidirectionalBFS(), new Dijkstra(),
+                new BidirectionalDijkstra(), new AStar(), new JumpPointSearch()};
+        for (PathFindingAlgorithm algo : algorithms) {
+            double straight = Timing.time(algo, new GridGraph(grid, false), start, end);
+            double diagonal = Timing.time(algo, new GridGraph(grid, true), start, end);
+            System.out.printf("%22s %14.3f %14.3f%n", algo.getClass().getSimpleName(), straight, diagonal);
+        }
+    }
+}
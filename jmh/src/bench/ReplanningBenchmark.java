@@ -0,0 +1,58 @@
+package bench;
+
+import core.graph.BitGrid;
+import core.graph.Graph;
+import core.graph.GridGraph;
+import core.path.AStar;
+import core.path.LPAStar;
+
+import java.util.Random;
+
+/**
+ * Cost of finding the path again after a single cell toggles: a new A* search against an LPA* repair.
+ */
+public final class ReplanningBenchmark {
+
+    private ReplanningBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        run(1000, 0.2, 200);
+    }
+
+    private static void run(int n, double density, int edits) {
+        Graph g = new GridGraph(new BitGrid(Timing.randomGrid(n, density, 17)), true);
+        int start = 0;
+        int end = (n * n) - 1;
+        Random random = new Random(19);
+
+        AStar aStar = new AStar();
+        LPAStar planner = new LPAStar();
+        planner.solve(g, start, end);
+
+        long fullNanos = 0;
+        long repairNanos = 0;
+        for (int i = 0; i < edits; i++) {
+            int x = random.nextInt(n);
+            int y = random.nextInt(n);
+            if ((y * n) + x == start || (y * n) + x == end)
+                continue;
+            g.setBlocked(x, y, g.isOpen(x, y));
+            planner.cellChanged(x, y);
+
+            long begin = System.nanoTime();
+            aStar.solve(g, start, end);
+            fullNanos += System.nanoTime() - begin;
+
+            begin = System.nanoTime();
+            planner.solve(g, start, end);
+            repairNanos += System.nanoTime() - begin;
+        }
+
+        System.out.println();
+        System.out.println("Replanning after one cell toggles, " + n + "x" + n + ", " + edits + " edits, 8-way");
+        System.out.printf("%22s %14s%n", "algorithm", "avg (ms)");
+        System.out.printf("%22s %14.3f%n", "AStar", fullNanos / (edits * 1e6));
+        System.out.printf("%22s %14.3f%n", "LPAStar", repairNanos / (edits * 1e6));
+    }
+}
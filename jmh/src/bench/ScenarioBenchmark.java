@@ -0,0 +1,85 @@
+package bench;
+
+import core.graph.BitGrid;
+import core.graph.Graph;
+import core.graph.GridGraph;
+import core.io.MovingAi;
+import core.io.Scenario;
+import core.path.AStar;
+import core.path.BFS;
+import core.path.BidirectionalBFS;
+import core.path.BidirectionalDijkstra;
+import core.path.Dijkstra;
+import core.path.JumpPointSearch;
+import core.path.PathFindingAlgorithm;
+import core.path.SearchListener;
+import core.path.SearchResult;
+import core.path.SearchStats;
+import core.path.SearchStatsRecorder;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Replays a Moving AI scenario file on its map with every point to point algorithm. Takes the map and the
+ * scenario file as arguments.
+ */
+public final class ScenarioBenchmark {
+
+    private ScenarioBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2)
+            throw new IllegalArgumentException("Usage: ScenarioBenchmark <map file> <scenario file>");
+        run(args[0], args[1]);
+    }
+
+    private static void run(String mapFile, String scenarioFile) {
+        BitGrid grid;
+        List<Scenario> scenarios;
+        long begin = System.nanoTime();
+        try {
+            grid = MovingAi.readMap(Paths.get(mapFile));
+            scenarios = MovingAi.readScenarios(Paths.get(scenarioFile));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        double loadMs = (System.nanoTime() - begin) / 1e6;
+
+        System.out.println(mapFile + ", " + grid.getWidth() + "x" + grid.getHeight() + ", " + scenarios.size()
+                + " scenarios, loaded in " + String.format("%.3f", loadMs) + " ms");
+        System.out.printf("%22s %14s %10s %14s%n", "algorithm", "total (ms)", "solved", "total cost");
+
+        Graph g = new GridGraph(grid, true);
+        SearchStatsRecorder recorder = new SearchStatsRecorder();
+        PathFindingAlgorithm[] algorithms = {new BFS(), new BidirectionalBFS(), new Dijkstra(),
+                new BidirectionalDijkstra(), new AStar(), new JumpPointSearch()};
+        for (PathFindingAlgorithm algo : algorithms) {
+            MovingAi.replay(algo, g, scenarios);
+            // Only the measured replay goes into the histograms
+            SearchStats.setListener(recorder);
+            begin = System.nanoTime();
+            SearchResult[] results = MovingAi.replay(algo, g, scenarios);
+            double ms = (System.nanoTime() - begin) / 1e6;
+            SearchStats.setListener(null);
+
+            int solved = 0;
+            long cost = 0;
+            for (SearchResult result : results) {
+                if (result.isReachable()) {
+                    solved++;
+                    cost += result.getCost();
+                }
+            }
+            System.out.printf("%22s %14.3f %10d %14d%n", algo.getClass().getSimpleName(), ms, solved, cost);
+        }
+
+        System.out.println();
+        if (SearchListener.ENABLED)
+            recorder.dump(System.out);
+        else
+            System.out.println("Run with -Dcore.path.listeners=true for per-search histograms");
+    }
+}
@@ -0,0 +1,92 @@
+package bench;
+
+import core.graph.Graph;
+import core.path.AStar;
+import core.path.BFS;
+import core.path.BellmanFord;
+import core.path.BidirectionalBFS;
+import core.path.BidirectionalDijkstra;
+import core.path.DFS;
+import core.path.Dial;
+import core.path.Dijkstra;
+import core.path.HPAStar;
+import core.path.JumpPointSearch;
+import core.path.LPAStar;
+import core.path.PathFindingAlgorithm;
+import core.path.SearchResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import java.util.Random;
+
+/**
+ * Point to point queries between random open cells with every {@link PathFindingAlgorithm}. Each call answers the
+ * next of a fixed set of queries, so the numbers are averages over them.
+ */
+public class SearchBenchmark extends GridBenchmark {
+
+    // Queries per configuration, a power of two so they can be cycled with a mask
+    private static final int QUERIES = 16;
+
+    @Param({"DFS", "BFS", "Dijkstra", "BellmanFord", "AStar", "JumpPointSearch", "BidirectionalBFS",
+            "BidirectionalDijkstra", "LPAStar", "HPAStar", "Dial"})
+    public String algorithm;
+
+    private PathFindingAlgorithm algo;
+    private final int[] starts = new int[QUERIES];
+    private final int[] ends = new int[QUERIES];
+    private int query;
+
+    @Override
+    protected void prepare() {
+        algo = create(algorithm);
+        Random random = new Random(7);
+        for (int q = 0; q < QUERIES; q++) {
+            starts[q] = randomOpen(g, random);
+            ends[q] = randomOpen(g, random);
+        }
+    }
+
+    @Benchmark
+    public SearchResult solve() {
+        int q = query++ & (QUERIES - 1);
+        return algo.solve(g, starts[q], ends[q]);
+    }
+
+    private static PathFindingAlgorithm create(String name) {
+        switch (name) {
+            case "DFS":
+                return new DFS();
+            case "BFS":
+                return new BFS();
+            case "Dijkstra":
+                return new Dijkstra();
+            case "BellmanFord":
+                return new BellmanFord();
+            case "AStar":
+                return new AStar();
+            case "JumpPointSearch":
+                return new JumpPointSearch();
+            case "BidirectionalBFS":
+                return new BidirectionalBFS();
+            case "BidirectionalDijkstra":
+                return new BidirectionalDijkstra();
+            case "LPAStar":
+                return new LPAStar();
+            case "HPAStar":
+                return new HPAStar();
+            case "Dial":
+                return new Dial();
+            default:
+                throw new IllegalArgumentException("Unknown algorithm " + name);
+        }
+    }
+
+    private static int randomOpen(Graph g, Random random) {
+        while (true) {
+            int node = random.nextInt(g.getSize());
+            if (g.isOpen(node % g.getWidth(), node / g.getWidth()))
+                return node;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package bench;
+
+import core.graph.Graph;
+import core.graph.GridGraph;
+import core.path.AStar;
+import core.path.BFS;
+import core.path.BidirectionalDijkstra;
+import core.path.Dijkstra;
+import core.path.JumpPointSearch;
+import core.path.PathFindingAlgorithm;
+
+import java.util.Random;
+
+/**
+ * Queries between the two halves of a grid split by a wall, which the component index turns down without a
+ * search. The first query builds the index.
+ */
+public final class SeparatedBenchmark {
+
+    private SeparatedBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        run(2000, 0.2, 100);
+    }
+
+    private static void run(int n, double density, int queries) {
+        boolean[][] cells = Timing.randomGrid(n, density, 41);
+        for (int y = 0; y < n; y++)
+            cells[y][n / 2] = false;
+        Graph g = new GridGraph(cells, true);
+        Random random = new Random(43);
+        int[] starts = new int[queries];
+        int[] ends = new int[queries];
+        for (int q = 0; q < queries; q++) {
+            do {
+                starts[q] = Timing.randomOpen(g, random);
+            } while (starts[q] % n >= n / 2);
+            do {
+                ends[q] = Timing.randomOpen(g, random);
+            } while (ends[q] % n <= n / 2);
+        }
+
+        long begin = System.nanoTime();
+        g.sameComponent(starts[0], ends[0]);
+        double buildMs = (System.nanoTime() - begin) / 1e6;
+
+        System.out.println();
+        System.out.println("Queries across a wall, " + n + "x" + n + ", " + Math.round(density * 100) + "% obstacles, "
+                + "index built in " + String.format("%.3f", buildMs) + " ms");
+        System.out.printf("%22s %14s%n", "algorithm", "avg (us)");
+        for (PathFindingAlgorithm algo : new PathFindingAlgorithm[]{new BFS(), new Dijkstra(), new AStar(),
+                new JumpPointSearch(), new BidirectionalDijkstra()}) {
+            // Size the workspace first
+            algo.solve(g, starts[0], ends[0]);
+            begin = System.nanoTime();
+            for (int q = 0; q < queries; q++)
+                algo.solve(g, starts[q], ends[q]);
+            System.out.printf("%22s %14.3f%n", algo.getClass().getSimpleName(),
+                    (System.nanoTime() - begin) / (queries * 1e3));
+        }
+    }
+}
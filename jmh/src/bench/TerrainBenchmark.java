@@ -0,0 +1,77 @@
+package bench;
+
+import core.graph.BitGrid;
+import core.graph.CsrGraph;
+import core.graph.EdgeCost;
+import core.graph.Graph;
+import core.graph.GridGraph;
+import core.path.Dial;
+import core.path.Dijkstra;
+import core.path.PathFindingAlgorithm;
+
+import java.util.Random;
+
+/**
+ * Dijkstra with a binary heap against Dial's bucket queue on terrain costs: patches of cost 1 to 9 over a
+ * random grid, 8-way, so edge costs range from 10 to 126.
+ */
+public final class TerrainBenchmark {
+
+    private TerrainBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        run(1000, 0.2, 100);
+    }
+
+    /**
+     * Random grid with square patches of cost 1 to 9, the same one for a given size, density and seed.
+     */
+    private static BitGrid terrain(int n, double density, long seed) {
+        BitGrid grid = new BitGrid(Timing.randomGrid(n, density, seed));
+        Random random = new Random(seed + 2);
+        for (int patch = 0; patch < n; patch++) {
+            int cx = random.nextInt(n);
+            int cy = random.nextInt(n);
+            int radius = 2 + random.nextInt(n / 20 + 1);
+            int cost = 1 + random.nextInt(9);
+            for (int y = Math.max(0, cy - radius); y < Math.min(n, cy + radius); y++)
+                for (int x = Math.max(0, cx - radius); x < Math.min(n, cx + radius); x++)
+                    grid.setCost(x, y, cost);
+        }
+        return grid;
+    }
+
+    private static void run(int n, double density, int queries) {
+        BitGrid grid = terrain(n, density, 59);
+
+        System.out.println();
+        System.out.println("Terrain costs, " + n + "x" + n + ", " + Math.round(density * 100) + "% obstacles, "
+                + queries + " queries, 8-way");
+        System.out.printf("%22s %14s %14s%n", "graph", "heap (ms)", "buckets (ms)");
+        for (Graph g : new Graph[]{new GridGraph(grid, true), new CsrGraph(grid, true)}) {
+            Random queryRandom = new Random(67);
+            PathFindingAlgorithm heap = new Dijkstra(EdgeCost.terrain(g));
+            PathFindingAlgorithm buckets = new Dial();
+            heap.solve(g, 0, (n * n) - 1);
+            buckets.solve(g, 0, (n * n) - 1);
+
+            long heapNanos = 0;
+            long bucketNanos = 0;
+            for (int q = 0; q < queries; q++) {
+                int start = Timing.randomOpen(g, queryRandom);
+                int end = Timing.randomOpen(g, queryRandom);
+
+                long begin = System.nanoTime();
+                heap.solve(g, start, end);
+                heapNanos += System.nanoTime() - begin;
+
+                begin = System.nanoTime();
+                buckets.solve(g, start, end);
+                bucketNanos += System.nanoTime() - begin;
+            }
+            System.out.printf("%22s %14.3f %14.3f%n", g.getClass().getSimpleName(), heapNanos / (queries * 1e6),
+                    bucketNanos / (queries * 1e6));
+        }
+    }
+}
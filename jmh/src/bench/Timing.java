@@ -0,0 +1,75 @@
+package bench;
+
+import core.graph.Graph;
+import core.graph.Layout;
+import core.path.PathFindingAlgorithm;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * Fixed-count timing loops and inputs shared by the feature benchmarks. Unlike the JMH benchmarks, which measure
+ * for a set time in a forked JVM, these run a few warm-up calls and then average a few measured ones.
+ */
+final class Timing {
+
+    static final int WARMUP = 3;
+    static final int RUNS = 5;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private Timing() {
+    }
+
+    /**
+     * Average time of a whole-tree solve in ms.
+     */
+    static double time(PathFindingAlgorithm algo, Graph g, int start) {
+        for (int i = 0; i < WARMUP; i++)
+            algo.solve(g, start);
+
+        long begin = System.nanoTime();
+        for (int i = 0; i < RUNS; i++)
+            algo.solve(g, start);
+        return (System.nanoTime() - begin) / (RUNS * 1e6);
+    }
+
+    /**
+     * Average time of a point to point solve in ms.
+     */
+    static double time(PathFindingAlgorithm algo, Graph g, int start, int end) {
+        for (int i = 0; i < WARMUP; i++)
+            algo.solve(g, start, end);
+
+        long begin = System.nanoTime();
+        for (int i = 0; i < RUNS; i++)
+            algo.solve(g, start, end);
+        return (System.nanoTime() - begin) / (RUNS * 1e6);
+    }
+
+    /**
+     * Bytes allocated by the calling thread so far.
+     */
+    static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Random layout with the two corners open, so there is something to search between them.
+     */
+    static boolean[][] randomGrid(int n, double density, long seed) {
+        boolean[][] grid = Layout.RANDOM.generate(n, density, seed);
+        grid[0][0] = true;
+        grid[n - 1][n - 1] = true;
+        return grid;
+    }
+
+    static int randomOpen(Graph g, Random random) {
+        while (true) {
+            int node = random.nextInt(g.getSize());
+            if (g.isOpen(node % g.getWidth(), node / g.getWidth()))
+                return node;
+        }
+    }
+}
@@ -1,4 +1,5 @@
 import core.path.DFS;
+import core.graph.CsrGraph;
 import core.graph.Graph;
 import core.path.PathFindingAlgorithm;
 
@@ -16,9 +17,9 @@ public class Test {
         int start = 0;
         int end = 1;
 
-        Graph g = new Graph(grid, false);
+        Graph g = new CsrGraph(grid, false);
         PathFindingAlgorithm algo = new DFS();
-        algo.solve(g, start);
+        algo.solve(g, start, end);
 
         boolean res = algo.checkPath(end);
         System.out.println("Path found?: " + res);
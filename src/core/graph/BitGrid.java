@@ -0,0 +1,217 @@
+package core.graph;
+
+import java.util.Arrays;
+
+/**
+ * Passability grid packed one bit per cell into {@code long} words, a set bit is an open cell.
+ * Cells are addressed row-major and every row starts on a fresh word, so a row can be read or written a word
+ * at a time and rows never share a word. Bit {@code k} of word {@code i} of a row is the cell {@code x = 64 * i + k}.
+ * <p>
+ * Every cell also has a terrain cost from 1 to {@link #MAX_COST}, kept one byte per cell once a cell costs more
+ * than 1. The cost of a blocked cell is kept for when it is opened again.
+ */
+public final class BitGrid {
+
+    /**
+     * Highest terrain cost of a cell.
+     */
+    public static final int MAX_COST = 255;
+
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    // Bits per row, the row-major bit index of (x, y) is y * stride + x
+    final int stride;
+    final long[] words;
+    // Terrain cost of every cell as an unsigned byte, indexed y * width + x, null while every cell costs 1
+    byte[] costs;
+    // Highest cost set since the grid was created, an upper bound on the cost of any cell
+    private int maxCost = 1;
+    // Bumped by every change, so caches can tell whether they are still in step
+    private long version;
+    // Connected components for 4-way and 8-way moves, created on first use
+    private final ComponentIndex[] components = new ComponentIndex[2];
+
+    /**
+     * Creates a grid with every cell open or every cell blocked.
+     */
+    public BitGrid(int width, int height, boolean open) {
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException("Grid must not be empty: " + width + "x" + height);
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.stride = wordsPerRow << 6;
+        this.words = new long[wordsPerRow * height];
+        if (open)
+            for (int y = 0; y < height; y++)
+                for (int i = 0; i < wordsPerRow; i++)
+                    setWord(y, i, -1L);
+    }
+
+    /**
+     * Packs a {@code grid[y][x]} passability array.
+     */
+    public BitGrid(boolean[][] grid) {
+        this(grid[0].length, grid.length, false);
+        for (int y = 0; y < height; y++)
+            setRow(y, grid[y]);
+    }
+
+    private BitGrid(BitGrid other) {
+        this.width = other.width;
+        this.height = other.height;
+        this.wordsPerRow = other.wordsPerRow;
+        this.stride = other.stride;
+        this.words = other.words.clone();
+        this.costs = other.costs == null ? null : other.costs.clone();
+        this.maxCost = other.maxCost;
+        this.version = other.version;
+    }
+
+    public BitGrid copy() {
+        return new BitGrid(this);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getWordsPerRow() {
+        return wordsPerRow;
+    }
+
+    /**
+     * Number of changes made to the grid so far. Setting a cell to the state it already has is not a change.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Whether the cell at (x, y) is passable. Coordinates must be inside the grid.
+     */
+    public boolean isOpen(int x, int y) {
+        return isOpen((y * stride) + x);
+    }
+
+    boolean isOpen(int bit) {
+        return (words[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    public void setBlocked(int x, int y, boolean blocked) {
+        int bit = (y * stride) + x;
+        if (isOpen(bit) != blocked)
+            return;
+        if (blocked)
+            words[bit >>> 6] &= ~(1L << bit);
+        else
+            words[bit >>> 6] |= 1L << bit;
+        version++;
+
+        for (ComponentIndex index : components) {
+            if (index == null)
+                continue;
+            if (blocked)
+                index.blocked(x, y);
+            else
+                index.opened(x, y);
+        }
+    }
+
+    /**
+     * Terrain cost of the cell at (x, y), 1 unless set otherwise.
+     */
+    public int getCost(int x, int y) {
+        return costs == null ? 1 : costs[(y * width) + x] & 0xFF;
+    }
+
+    /**
+     * Sets the terrain cost of the cell at (x, y). Setting the cost a cell already has is not a change.
+     *
+     * @throws IllegalArgumentException if {@code cost} is not between 1 and {@link #MAX_COST}
+     */
+    public void setCost(int x, int y, int cost) {
+        if (cost < 1 || cost > MAX_COST)
+            throw new IllegalArgumentException("Cost must be between 1 and " + MAX_COST + ": " + cost);
+        if (getCost(x, y) == cost)
+            return;
+        if (costs == null) {
+            costs = new byte[width * height];
+            Arrays.fill(costs, (byte) 1);
+        }
+        costs[(y * width) + x] = (byte) cost;
+        maxCost = Math.max(maxCost, cost);
+        version++;
+
+        // Costs don't change which cells are connected
+        for (ComponentIndex index : components)
+            if (index != null)
+                index.costChanged();
+    }
+
+    /**
+     * Upper bound on the cost of any cell: the highest cost set so far, even if no cell has it any more.
+     */
+    public int getMaxCost() {
+        return maxCost;
+    }
+
+    /**
+     * Component index of the grid for the given move model, shared by every graph over the grid.
+     */
+    synchronized ComponentIndex components(boolean diagonal) {
+        int i = diagonal ? 1 : 0;
+        if (components[i] == null)
+            components[i] = new ComponentIndex(this, diagonal);
+        return components[i];
+    }
+
+    /**
+     * Word {@code i} of row {@code y}, covering the cells {@code 64 * i} to {@code 64 * i + 63}.
+     * Bits past the end of the row are always clear.
+     */
+    public long getWord(int y, int i) {
+        return words[(y * wordsPerRow) + i];
+    }
+
+    /**
+     * Overwrites word {@code i} of row {@code y}. Bits past the end of the row are ignored.
+     */
+    public void setWord(int y, int i, long word) {
+        if (i == wordsPerRow - 1 && (width & 63) != 0)
+            word &= (1L << width) - 1;
+        words[(y * wordsPerRow) + i] = word;
+        version++;
+    }
+
+    /**
+     * Overwrites row {@code y} from the first {@link #getWidth()} entries of {@code row}.
+     */
+    public void setRow(int y, boolean[] row) {
+        for (int i = 0; i < wordsPerRow; i++) {
+            long word = 0;
+            int end = Math.min(width, (i + 1) << 6);
+            for (int x = i << 6; x < end; x++)
+                if (row[x])
+                    word |= 1L << x;
+            words[(y * wordsPerRow) + i] = word;
+        }
+        version++;
+    }
+
+    /**
+     * Number of open cells.
+     */
+    public int countOpen() {
+        int count = 0;
+        for (long word : words)
+            count += Long.bitCount(word);
+        return count;
+    }
+
+}
@@ -0,0 +1,255 @@
+package core.graph;
+
+import java.util.stream.IntStream;
+
+/**
+ * Connected components of the open cells of a {@link BitGrid} under one move model, so a query between two regions
+ * can be turned down without a search.
+ * <p>
+ * The components form a union-find forest over the nodes: {@code labels[v]} is -1 for a blocked cell, otherwise a
+ * node of the same component, and following labels ends at the component's root, which points to itself. A full
+ * build links the cells band by band in parallel, joins the bands and then points every cell straight at its root.
+ * Opening a cell links it to its open neighbours in place. Blocking a cell whose open neighbours stay connected
+ * around it can't split a component, so the labels stay valid and the cell is only left in its tree as a link to
+ * the others. Any other block may split a component, and marks the index stale until it is built again on the next
+ * query.
+ * <p>
+ * Queries may run on several threads at once. Path compression from several threads only ever moves a label to
+ * another node of the same tree, so racing queries still agree.
+ */
+final class ComponentIndex {
+
+    private static final int BAND_ROWS = 64;
+    // The eight cells around a cell, in order around it
+    private static final int[] RING_X = {-1, 0, 1, 1, 1, 0, -1, -1};
+    private static final int[] RING_Y = {-1, -1, -1, 0, 1, 1, 1, 0};
+
+    private final BitGrid grid;
+    private final boolean diagonal;
+    private final int width;
+    private final int height;
+    private final int[] labels;
+    // Grid version the labels are in step with
+    private volatile long version = -1;
+
+    ComponentIndex(BitGrid grid, boolean diagonal) {
+        this.grid = grid;
+        this.diagonal = diagonal;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.labels = new int[width * height];
+    }
+
+    /**
+     * Whether nodes {@code a} and {@code b} are open and connected, or the same node.
+     */
+    boolean same(int a, int b) {
+        if (a == b)
+            return true;
+        if (version != grid.getVersion())
+            build();
+        // Labels of cells blocked since the build may still be links in a tree
+        if (!grid.isOpen(a % width, a / width) || !grid.isOpen(b % width, b / width))
+            return false;
+        return find(a) == find(b);
+    }
+
+    /**
+     * Links the cell at (x, y), which has just been opened, to its open neighbours. Only done if the labels were
+     * in step with the grid up to this change, otherwise they are left for the next build.
+     */
+    void opened(int x, int y) {
+        if (version != grid.getVersion() - 1)
+            return;
+
+        int v = (y * width) + x;
+        if (labels[v] < 0) {
+            labels[v] = v;
+        } else if (!touchesOwnTree(x, y)) {
+            // Still a link in the tree of a component it no longer borders, it can't be taken out of it
+            return;
+        }
+        for (int dy = -1; dy <= 1; dy++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                int nx = x + dx;
+                int ny = y + dy;
+                if ((dx == 0 && dy == 0) || (!diagonal && dx != 0 && dy != 0))
+                    continue;
+                if (nx >= 0 && nx < width && ny >= 0 && ny < height && grid.isOpen(nx, ny))
+                    union(v, (ny * width) + nx);
+            }
+        }
+        version = grid.getVersion();
+    }
+
+    /**
+     * Keeps the labels valid after the cell at (x, y) was blocked, if its open neighbours are still connected to
+     * each other through the cells around it. Otherwise the index goes stale.
+     */
+    void blocked(int x, int y) {
+        if (version != grid.getVersion() - 1 || !ringConnected(x, y))
+            return;
+        version = grid.getVersion();
+    }
+
+    /**
+     * Keeps the labels in step after a change of a cell's cost, which leaves every cell where it was.
+     */
+    void costChanged() {
+        if (version == grid.getVersion() - 1)
+            version = grid.getVersion();
+    }
+
+    /**
+     * Whether the open neighbours of (x, y) can reach each other without passing through (x, y), using only the
+     * cells around it.
+     */
+    private boolean ringConnected(int x, int y) {
+        int open = 0;
+        for (int k = 0; k < RING_X.length; k++) {
+            int nx = x + RING_X[k];
+            int ny = y + RING_Y[k];
+            if (nx >= 0 && nx < width && ny >= 0 && ny < height && grid.isOpen(nx, ny))
+                open |= 1 << k;
+        }
+
+        // Flood the ring from one neighbour of (x, y) and check that every other one is reached
+        int neighbors = diagonal ? open : open & 0xAA;
+        if (neighbors == 0)
+            return true;
+        int reached = Integer.lowestOneBit(neighbors);
+        int frontier = reached;
+        while (frontier != 0) {
+            int k = Integer.numberOfTrailingZeros(frontier);
+            frontier &= frontier - 1;
+            for (int j = 0; j < RING_X.length; j++) {
+                if ((open & ~reached & (1 << j)) != 0 && adjacent(k, j)) {
+                    reached |= 1 << j;
+                    frontier |= 1 << j;
+                }
+            }
+        }
+        return (neighbors & ~reached) == 0;
+    }
+
+    private boolean adjacent(int k, int j) {
+        int dx = Math.abs(RING_X[k] - RING_X[j]);
+        int dy = Math.abs(RING_Y[k] - RING_Y[j]);
+        return diagonal ? Math.max(dx, dy) == 1 : dx + dy == 1;
+    }
+
+    /**
+     * Whether an open neighbour of the cell at (x, y) is in the same tree as the cell.
+     */
+    private boolean touchesOwnTree(int x, int y) {
+        int root = find((y * width) + x);
+        for (int dy = -1; dy <= 1; dy++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                int nx = x + dx;
+                int ny = y + dy;
+                if ((dx == 0 && dy == 0) || (!diagonal && dx != 0 && dy != 0))
+                    continue;
+                if (nx >= 0 && nx < width && ny >= 0 && ny < height && grid.isOpen(nx, ny)
+                        && find((ny * width) + nx) == root)
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized void build() {
+        long current = grid.getVersion();
+        if (version == current)
+            return;
+
+        int bands = (height + BAND_ROWS - 1) / BAND_ROWS;
+        // Within a band only the band's own labels are touched, so bands can be linked side by side
+        IntStream.range(0, bands).parallel().forEach(band -> {
+            int last = Math.min(height, (band + 1) * BAND_ROWS);
+            for (int y = band * BAND_ROWS; y < last; y++)
+                linkRow(y, y > band * BAND_ROWS);
+        });
+        // Join each band to the one above it
+        for (int band = 1; band < bands; band++)
+            linkUp(band * BAND_ROWS);
+        IntStream.range(0, bands).parallel().forEach(band -> {
+            int first = band * BAND_ROWS * width;
+            int last = Math.min(height, (band + 1) * BAND_ROWS) * width;
+            for (int v = first; v < last; v++)
+                if (labels[v] >= 0)
+                    labels[v] = root(v);
+        });
+        version = current;
+    }
+
+    /**
+     * Starts every cell of row {@code y} as its own component and links it to the cell on its left and, if
+     * {@code up}, to the row above.
+     */
+    private void linkRow(int y, boolean up) {
+        int row = y * width;
+        for (int x = 0; x < width; x++) {
+            int v = row + x;
+            if (!grid.isOpen(x, y)) {
+                labels[v] = -1;
+                continue;
+            }
+            labels[v] = v;
+            if (x > 0 && labels[v - 1] >= 0)
+                union(v, v - 1);
+        }
+        if (up)
+            linkUp(y);
+    }
+
+    /**
+     * Links the open cells of row {@code y} to their open neighbours in the row above.
+     */
+    private void linkUp(int y) {
+        int row = y * width;
+        for (int x = 0; x < width; x++) {
+            int v = row + x;
+            if (labels[v] < 0)
+                continue;
+            if (labels[v - width] >= 0)
+                union(v, v - width);
+            if (diagonal) {
+                if (x > 0 && labels[v - width - 1] >= 0)
+                    union(v, v - width - 1);
+                if (x < width - 1 && labels[v - width + 1] >= 0)
+                    union(v, v - width + 1);
+            }
+        }
+    }
+
+    private void union(int a, int b) {
+        int ra = find(a);
+        int rb = find(b);
+        // The smaller root wins, so a build always ends with the same labels
+        if (ra < rb)
+            labels[rb] = ra;
+        else if (rb < ra)
+            labels[ra] = rb;
+    }
+
+    /**
+     * Root of {@code v}'s tree, halving the path on the way.
+     */
+    private int find(int v) {
+        while (labels[v] != v) {
+            labels[v] = labels[labels[v]];
+            v = labels[v];
+        }
+        return v;
+    }
+
+    /**
+     * Root of {@code v}'s tree without changing any label.
+     */
+    private int root(int v) {
+        while (labels[v] != v)
+            v = labels[v];
+        return v;
+    }
+
+}
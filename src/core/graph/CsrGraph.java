@@ -0,0 +1,476 @@
+package core.graph;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Graph with its adjacency materialised in compressed sparse row form.
+ * <p>
+ * Built from a grid, the work is split into bands of rows that are processed in parallel: a first pass counts
+ * degrees per node and edges per band, a second pass fills every band's edges and vertices into preallocated
+ * arrays. Built from a {@link GridRowReader}, rows are consumed one at a time.
+ * <p>
+ * As built the edges are packed. The first {@link #setBlocked(int, int, boolean)} spreads them out to
+ * {@link #maxDegree()} slots per node, after which an edit rewrites the slots of the cell and its neighbours in
+ * place and adds or removes them from the vertex list.
+ * <p>
+ * Edge costs are kept in an array parallel to the edges once any cell costs more than 1. Until then the cost of
+ * an edge is that of its move, straight or diagonal.
+ */
+public class CsrGraph implements Graph {
+
+    private static final int BAND_ROWS = 64;
+
+    // Compressed sparse row adjacency: neighbours of v are targets[offsets[v] .. offsets[v + 1]) while packed,
+    // targets[offsets[v] .. ends[v]) once spread out for editing
+    private int[] offsets;
+    private int[] ends;
+    private int[] targets;
+    // Cost of the edge at the same index in targets, null while every cell costs 1
+    private char[] weights;
+    // Passability, a private copy so edits to the caller's grid can't disagree with the edges
+    private final BitGrid grid;
+    // Nodes with at least one neighbour, ascending until the first edit. Once editing, positions[v] is the index
+    // of v in vertices or -1, so a node can be swapped out in O(1)
+    private int[] vertices;
+    private int[] positions;
+    private int vertexCount;
+    private final boolean diagonal;
+    private final int[] dx;
+    private final int[] dy;
+    // Component index of the grid, looked up on first use
+    private ComponentIndex components;
+    private final int width;
+    private final int height;
+    private final int size;
+
+    /**
+     * Builds the graph from a snapshot of {@code grid}, later changes to the grid are not seen by the graph.
+     */
+    public CsrGraph(BitGrid grid, boolean diagonal) {
+        this.grid = grid.copy();
+        this.diagonal = diagonal;
+        height = grid.getHeight();
+        width = grid.getWidth();
+        size = height * width;
+        dx = GridOffsets.dx(diagonal);
+        dy = GridOffsets.dy(diagonal);
+
+        int bands = (height + BAND_ROWS - 1) / BAND_ROWS;
+        int[] bandEdges = new int[bands + 1];
+        int[] bandVertices = new int[bands + 1];
+
+        // First pass: count the degree of every node, stored at offsets[v] for now
+        offsets = new int[size + 1];
+        IntStream.range(0, bands).parallel().forEach(band -> {
+            int edges = 0;
+            int vertexes = 0;
+            for (int y = band * BAND_ROWS; y < Math.min(height, (band + 1) * BAND_ROWS); y++) {
+                for (int x = 0; x < width; x++) {
+                    int degree = checkAdjacentNodes(this.grid, x, y, dx, dy, null, null, 0);
+                    offsets[node(x, y)] = degree;
+                    edges += degree;
+                    if (degree > 0)
+                        vertexes++;
+                }
+            }
+            bandEdges[band + 1] = edges;
+            bandVertices[band + 1] = vertexes;
+        });
+
+        for (int band = 0; band < bands; band++) {
+            bandEdges[band + 1] += bandEdges[band];
+            bandVertices[band + 1] += bandVertices[band];
+        }
+
+        // Second pass: turn the degrees into offsets and fill the edges and vertices of every band
+        targets = new int[bandEdges[bands]];
+        weights = this.grid.costs == null ? null : new char[targets.length];
+        vertices = new int[bandVertices[bands]];
+        vertexCount = vertices.length;
+        IntStream.range(0, bands).parallel().forEach(band -> {
+            int pos = bandEdges[band];
+            int vertexPos = bandVertices[band];
+            for (int y = band * BAND_ROWS; y < Math.min(height, (band + 1) * BAND_ROWS); y++) {
+                for (int x = 0; x < width; x++) {
+                    int v = node(x, y);
+                    int degree = offsets[v];
+                    offsets[v] = pos;
+                    checkAdjacentNodes(this.grid, x, y, dx, dy, targets, weights, pos);
+                    pos += degree;
+                    if (degree > 0)
+                        vertices[vertexPos++] = v;
+                }
+            }
+        });
+        offsets[size] = targets.length;
+    }
+
+    public CsrGraph(boolean[][] grid, boolean diagonal) {
+        this(new BitGrid(grid), diagonal);
+    }
+
+    private CsrGraph(BitGrid grid, boolean diagonal, int[] offsets, int[] targets, int[] vertices, int vertexCount) {
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.size = width * height;
+        this.diagonal = diagonal;
+        this.dx = GridOffsets.dx(diagonal);
+        this.dy = GridOffsets.dy(diagonal);
+        this.offsets = offsets;
+        this.targets = targets;
+        this.vertices = vertices;
+        this.vertexCount = vertexCount;
+    }
+
+    /**
+     * Builds the graph from rows streamed in from {@code rows}. Rows are packed into a {@link BitGrid} as they
+     * arrive and each row's edges are written as soon as the row below it is known, so the grid is never held
+     * as a {@code boolean[][]}.
+     */
+    public static CsrGraph fromRows(GridRowReader rows, boolean diagonal) throws IOException {
+        int width = rows.getWidth();
+        int height = rows.getHeight();
+        int size = width * height;
+        int[] dx = GridOffsets.dx(diagonal);
+        int[] dy = GridOffsets.dy(diagonal);
+
+        BitGrid grid = new BitGrid(width, height, false);
+        int[] offsets = new int[size + 1];
+        int[] targets = new int[Math.max(16, size)];
+        int[] vertices = new int[Math.max(16, size / 2)];
+        int pos = 0;
+        int vertexCount = 0;
+
+        boolean[] row = new boolean[width];
+        readRow(rows, row, 0, height);
+        grid.setRow(0, row);
+
+        for (int y = 0; y < height; y++) {
+            if (y < height - 1) {
+                readRow(rows, row, y + 1, height);
+                grid.setRow(y + 1, row);
+            }
+
+            for (int x = 0; x < width; x++) {
+                if (pos + dx.length > targets.length)
+                    targets = Arrays.copyOf(targets, targets.length + (targets.length >> 1) + dx.length);
+
+                int v = (y * width) + x;
+                int degree = checkAdjacentNodes(grid, x, y, dx, dy, targets, null, pos);
+                offsets[v] = pos;
+                pos += degree;
+                if (degree > 0) {
+                    if (vertexCount == vertices.length)
+                        vertices = Arrays.copyOf(vertices, vertices.length + (vertices.length >> 1));
+                    vertices[vertexCount++] = v;
+                }
+            }
+        }
+        offsets[size] = pos;
+
+        return new CsrGraph(grid, diagonal, offsets, targets, vertices, vertexCount);
+    }
+
+    private static void readRow(GridRowReader rows, boolean[] row, int y, int height) throws IOException {
+        if (!rows.readRow(row))
+            throw new IOException("Expected " + height + " rows, got " + y);
+    }
+
+    /**
+     * Counts the neighbours of (x, y) and, if {@code out} is given, writes them starting at {@code pos}, and their
+     * edge costs too if {@code weights} is given.
+     */
+    private static int checkAdjacentNodes(BitGrid grid, int x, int y, int[] dx, int[] dy, int[] out,
+                                          char[] weights, int pos){
+        // If there is a blockage at that point, don't process
+        if (!grid.isOpen(x, y)) return 0;
+
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        int count = 0;
+        for (int k = 0; k < dx.length; k++) {
+            int newX = x + dx[k];
+            int newY = y + dy[k];
+
+            boolean inBounds = (newX < width && newX >= 0) && (newY < height && newY >= 0);
+            if (inBounds && grid.isOpen(newX, newY)) {
+                if (out != null)
+                    out[pos + count] = (newY * width) + newX;
+                if (weights != null)
+                    weights[pos + count] = (char) (moveCost(dx[k], dy[k]) * grid.getCost(newX, newY));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int moveCost(int dx, int dy){
+        return dx != 0 && dy != 0 ? DIAGONAL_COST : STRAIGHT_COST;
+    }
+
+    private int node(int x, int y){
+        return (y * width) + x;
+    }
+
+    /**
+     * First index into the edge array for the neighbours of {@code v}. Use together with
+     * {@link #neighborsEnd(int)} and {@link #neighborAt(int)} to iterate without copying.
+     */
+    public int neighborsStart(int v){
+        return offsets[v];
+    }
+
+    /**
+     * Index one past the last neighbour of {@code v} in the edge array.
+     */
+    public int neighborsEnd(int v){
+        return ends == null ? offsets[v + 1] : ends[v];
+    }
+
+    /**
+     * Target node of the edge at index {@code i}.
+     */
+    public int neighborAt(int i){
+        return targets[i];
+    }
+
+    @Override
+    public int neighbors(int v, int[] out){
+        int start = offsets[v];
+        int count = neighborsEnd(v) - start;
+        System.arraycopy(targets, start, out, 0, count);
+        return count;
+    }
+
+    @Override
+    public int neighbors(int v, int[] out, int[] costs){
+        int start = offsets[v];
+        int count = neighborsEnd(v) - start;
+        System.arraycopy(targets, start, out, 0, count);
+        if (weights != null) {
+            for (int i = 0; i < count; i++)
+                costs[i] = weights[start + i];
+        } else {
+            for (int i = 0; i < count; i++) {
+                // Every cell costs 1, only the move counts
+                int d = out[i] - v;
+                boolean straight = d == width || d == -width || out[i] / width == v / width;
+                costs[i] = straight ? STRAIGHT_COST : DIAGONAL_COST;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public List<Integer> getNeighborsList(int idx){
+        return new IntListView(targets, offsets[idx], neighborsEnd(idx));
+    }
+
+    @Override
+    public int maxDegree(){
+        return GridOffsets.dx(diagonal).length;
+    }
+
+    @Override
+    public boolean isOpen(int x, int y){
+        return grid.isOpen(x, y);
+    }
+
+    @Override
+    public void setBlocked(int x, int y, boolean blocked){
+        if (grid.isOpen(x, y) != blocked)
+            return;
+        if (ends == null)
+            spread();
+
+        grid.setBlocked(x, y, blocked);
+        relink(x, y);
+        for (int k = 0; k < dx.length; k++) {
+            int newX = x + dx[k];
+            int newY = y + dy[k];
+            if ((newX < width && newX >= 0) && (newY < height && newY >= 0))
+                relink(newX, newY);
+        }
+    }
+
+    @Override
+    public int getCost(int x, int y){
+        return grid.getCost(x, y);
+    }
+
+    /**
+     * Sets the cost of the cell and rewrites the costs of the edges onto it. The first change of a cost creates
+     * the edge cost array.
+     */
+    @Override
+    public void setCost(int x, int y, int cost){
+        if (grid.getCost(x, y) == cost)
+            return;
+        grid.setCost(x, y, cost);
+        if (weights == null) {
+            weigh();
+            return;
+        }
+
+        int v = node(x, y);
+        for (int k = 0; k < dx.length; k++) {
+            int newX = x + dx[k];
+            int newY = y + dy[k];
+            if (!((newX < width && newX >= 0) && (newY < height && newY >= 0)))
+                continue;
+            int neigh = node(newX, newY);
+            for (int i = offsets[neigh]; i < neighborsEnd(neigh); i++)
+                if (targets[i] == v)
+                    weights[i] = (char) (moveCost(dx[k], dy[k]) * cost);
+        }
+    }
+
+    @Override
+    public int maxEdgeCost(){
+        return (diagonal ? DIAGONAL_COST : STRAIGHT_COST) * grid.getMaxCost();
+    }
+
+    /**
+     * Fills the edge cost array from the grid's costs.
+     */
+    private void weigh(){
+        char[] costs = new char[targets.length];
+        for (int v = 0; v < size; v++)
+            for (int i = offsets[v]; i < neighborsEnd(v); i++)
+                costs[i] = (char) edgeCost(v, targets[i]);
+        weights = costs;
+    }
+
+    @Override
+    public boolean sameComponent(int a, int b){
+        if (components == null)
+            components = grid.components(diagonal);
+        return components.same(a, b);
+    }
+
+    @Override
+    public long getVersion(){
+        return grid.getVersion();
+    }
+
+    /**
+     * Moves every node's edges to a block of {@link #maxDegree()} slots starting at {@code v * maxDegree()}, so
+     * any node can gain edges without moving the others, and indexes the vertex list.
+     */
+    private void spread(){
+        int slots = maxDegree();
+        if ((long) size * slots > Integer.MAX_VALUE)
+            throw new IllegalStateException("Grid too large to edit: " + width + "x" + height);
+
+        int[] spread = new int[size * slots];
+        char[] spreadWeights = weights == null ? null : new char[size * slots];
+        ends = new int[size];
+        for (int v = 0; v < size; v++) {
+            int start = offsets[v];
+            int count = offsets[v + 1] - start;
+            System.arraycopy(targets, start, spread, v * slots, count);
+            if (weights != null)
+                System.arraycopy(weights, start, spreadWeights, v * slots, count);
+            offsets[v] = v * slots;
+            ends[v] = offsets[v] + count;
+        }
+        offsets[size] = spread.length;
+        targets = spread;
+        weights = spreadWeights;
+
+        positions = new int[size];
+        Arrays.fill(positions, -1);
+        for (int i = 0; i < vertexCount; i++)
+            positions[vertices[i]] = i;
+    }
+
+    /**
+     * Rewrites the edges of (x, y) from the grid and keeps the vertex list in step.
+     */
+    private void relink(int x, int y){
+        int v = node(x, y);
+        int degree = checkAdjacentNodes(grid, x, y, dx, dy, targets, weights, offsets[v]);
+        ends[v] = offsets[v] + degree;
+
+        if (degree > 0 && positions[v] < 0) {
+            if (vertexCount == vertices.length)
+                vertices = Arrays.copyOf(vertices, Math.min(size, vertices.length + (vertices.length >> 1) + 1));
+            positions[v] = vertexCount;
+            vertices[vertexCount++] = v;
+        } else if (degree == 0 && positions[v] >= 0) {
+            // Swap the last vertex into the hole
+            int last = vertices[--vertexCount];
+            vertices[positions[v]] = last;
+            positions[last] = positions[v];
+            positions[v] = -1;
+        }
+    }
+
+    @Override
+    public boolean isDiagonal(){
+        return diagonal;
+    }
+
+    @Override
+    public int getSize(){
+        return size;
+    }
+
+    @Override
+    public int getWidth(){
+        return width;
+    }
+
+    @Override
+    public int getHeight(){
+        return height;
+    }
+
+    @Override
+    public int getVertexCount(){
+        return vertexCount;
+    }
+
+    /**
+     * Nodes with at least one neighbour, ascending as built but in no particular order after edits. The view is
+     * only valid until the next edit.
+     */
+    @Override
+    public List<Integer> getVertexList(){
+        return new IntListView(vertices, 0, vertexCount);
+    }
+
+    /**
+     * Read-only boxed view of a slice of an int array.
+     */
+    private static class IntListView extends AbstractList<Integer> {
+
+        private final int[] values;
+        private final int from;
+        private final int to;
+
+        IntListView(int[] values, int from, int to) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Integer get(int index) {
+            if (index < 0 || index >= to - from)
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (to - from));
+            return values[from + index];
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+
+}
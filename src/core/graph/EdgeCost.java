@@ -0,0 +1,20 @@
+package core.graph;
+
+/**
+ * Cost of moving along an edge of a {@link Graph}. Costs may be negative.
+ */
+@FunctionalInterface
+public interface EdgeCost {
+
+    EdgeCost UNIT = (from, to) -> 1;
+
+    /**
+     * Terrain costs of {@code g}, see {@link Graph#edgeCost(int, int)}. Only valid for searches on {@code g}.
+     */
+    static EdgeCost terrain(Graph g) {
+        return g::edgeCost;
+    }
+
+    int cost(int from, int to);
+
+}
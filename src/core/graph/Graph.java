@@ -3,87 +3,144 @@ package core.graph;
 import java.util.ArrayList;
 import java.util.List;
 
-public class Graph {
+/**
+ * Grid graph as seen by the path finding algorithms. Nodes are numbered row-major, {@code y * width + x}.
+ * <p>
+ * Cells have terrain costs. Moving onto a cell costs {@link #STRAIGHT_COST} or {@link #DIAGONAL_COST} times the
+ * cell's cost, which only the weighted searches look at: the others count every move as 1.
+ */
+public interface Graph {
 
-    private final List<List<Integer>> adj;
-    private final List<Integer> vertices;
-    private final int size;
+    /**
+     * Cost of a straight move onto a cell of cost 1.
+     */
+    int STRAIGHT_COST = 10;
 
-    public Graph(boolean[][] grid, boolean diagonal) {
-        adj = new ArrayList<>();
-        vertices = new ArrayList<>();
-        size = grid.length * grid[0].length;
+    /**
+     * Cost of a diagonal move onto a cell of cost 1, the nearest integer to {@code STRAIGHT_COST * sqrt(2)}.
+     */
+    int DIAGONAL_COST = 14;
 
-        for (int i = 0; i < size; i++)
-            adj.add(new ArrayList<>());
+    int getSize();
 
-        for (int i = 0; i < grid.length; i++)
-            for (int j = 0; j < grid[0].length ; j++)
-                checkAdjacentNodes(grid, j, i, diagonal);
+    int getWidth();
 
-        generateVertexList();
-    }
-
-    private void checkAdjacentNodes(boolean[][] grid, int x, int y, boolean diagonal){
-        // If there is a blockage at that point, don't process
-        if (!grid[y][x]) return;
-
-        if (diagonal){
-            for (int i = -1; i <= 1; i++)
-                for (int j = -1; j <= 1; j++)
-                    addNode(i, j, x, y, grid);
-        } else {
-            addNode(0, -1, x, y, grid);
-            addNode(-1, 0, x, y, grid);
-            addNode(0, 1, x, y, grid);
-            addNode(1, 0, x, y, grid);
-        }
-    }
-
-    private void addNode(int i, int j, int x, int y, boolean[][] grid){
-        int h = grid.length;
-        int w = grid[0].length;
+    int getHeight();
 
-        int newX = x + i;
-        int newY = y + j;
+    boolean isDiagonal();
 
-        int node1 = node(w, x, y);
-        int node2 = node(w, newX, newY);
+    /**
+     * Whether the cell at (x, y) is passable. Coordinates must be inside the grid.
+     */
+    boolean isOpen(int x, int y);
 
-        if (node1 == node2)
-            return;
-
-        boolean inBounds = (newX < w && newX >= 0) && (newY < h && newY >= 0);
-        if (inBounds && grid[newY][newX]) {
-            adj.get(node1).add(node2);
-        }
+    default boolean isBlocked(int x, int y){
+        return !isOpen(x, y);
     }
 
-    private int node(int size, int x, int y){
-        return (y * size) + x;
+    /**
+     * Blocks or opens the cell at (x, y) and updates the edges of the cell and its neighbours in place. Setting a
+     * cell to the state it already has does nothing. Must not be called while a search is running on the graph.
+     */
+    void setBlocked(int x, int y, boolean blocked);
+
+    /**
+     * Terrain cost of the cell at (x, y), from 1 to {@link BitGrid#MAX_COST}.
+     */
+    int getCost(int x, int y);
+
+    /**
+     * Sets the terrain cost of the cell at (x, y) and the costs of the edges onto it. Setting the cost a cell
+     * already has does nothing. Must not be called while a search is running on the graph.
+     */
+    void setCost(int x, int y, int cost);
+
+    /**
+     * Upper bound on the cost of any edge.
+     */
+    int maxEdgeCost();
+
+    /**
+     * Cost of the move from {@code from} onto its neighbour {@code to}.
+     */
+    default int edgeCost(int from, int to){
+        int width = getWidth();
+        boolean straight = from / width == to / width || from % width == to % width;
+        return (straight ? STRAIGHT_COST : DIAGONAL_COST) * getCost(to % width, to / width);
     }
 
-    public List<Integer> getNeighborsList(int idx){
-        return adj.get(idx);
+    /**
+     * Whether a path between nodes {@code a} and {@code b} exists: both are open and in the same connected
+     * component, or they are the same node. Answered from an index that is built on first use, kept up to date
+     * when cells are opened and built again lazily after cells are blocked, so searches can turn down queries
+     * between separate regions without flooding the start's region.
+     */
+    boolean sameComponent(int a, int b);
+
+    /**
+     * Number of changes made to the graph so far, never decreases. Caches and planners can key on it to tell
+     * whether they are still in step with the graph.
+     */
+    long getVersion();
+
+    /**
+     * Upper bound on the number of neighbours of any node, i.e. the buffer size needed by {@link #neighbors(int, int[])}.
+     */
+    int maxDegree();
+
+    /**
+     * Writes the neighbours of {@code v} into {@code out} and returns how many there are.
+     * {@code out} must hold at least {@link #maxDegree()} elements.
+     */
+    int neighbors(int v, int[] out);
+
+    /**
+     * Same as {@link #neighbors(int, int[])}, also writing the cost of the edge to each neighbour into
+     * {@code costs}, which must be as large as {@code out}.
+     */
+    default int neighbors(int v, int[] out, int[] costs){
+        int count = neighbors(v, out);
+        for (int i = 0; i < count; i++)
+            costs[i] = edgeCost(v, out[i]);
+        return count;
     }
 
-    public int getSize(){
-        return size;
+    /**
+     * Writes the nodes that have an edge to {@code v} into {@code out} and returns how many there are.
+     * Grid adjacency is symmetric, so this is the same as {@link #neighbors(int, int[])} unless an
+     * implementation says otherwise.
+     */
+    default int reverseNeighbors(int v, int[] out){
+        return neighbors(v, out);
     }
 
-    public int getVertexCount(){
-        return vertices.size();
+    /**
+     * Boxed view of the neighbours of {@code idx}, kept for compatibility. Prefer {@link #neighbors(int, int[])}.
+     */
+    default List<Integer> getNeighborsList(int idx){
+        int[] buffer = new int[maxDegree()];
+        int count = neighbors(idx, buffer);
+        List<Integer> ret = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            ret.add(buffer[i]);
+        return ret;
     }
 
-    private void generateVertexList(){
-        for (int i = 0; i < adj.size(); i++) {
-            if (!adj.get(i).isEmpty())
-                vertices.add(i);
-        }
+    default int getVertexCount(){
+        return getVertexList().size();
     }
 
-    public List<Integer> getVertexList(){
-        return vertices;
+    /**
+     * Nodes that have at least one neighbour.
+     */
+    default List<Integer> getVertexList(){
+        int[] buffer = new int[maxDegree()];
+        List<Integer> ret = new ArrayList<>();
+        for (int i = 0; i < getSize(); i++) {
+            if (neighbors(i, buffer) > 0)
+                ret.add(i);
+        }
+        return ret;
     }
 
 }
@@ -0,0 +1,173 @@
+package core.graph;
+
+/**
+ * Graph that keeps only the passability grid and works out neighbours when they are asked for.
+ * Construction from a {@link BitGrid} is O(1): the grid is referenced, not copied, so it must not change while a
+ * search is running on the graph. Edits through {@link #setBlocked(int, int, boolean)} go straight to the grid and
+ * the graph's version is the grid's.
+ */
+public class GridGraph implements Graph {
+
+    private final BitGrid grid;
+    private final long[] words;
+    private final boolean diagonal;
+    private final int width;
+    private final int height;
+
+    private final int[] dx;
+    private final int[] dy;
+    private final int[] moveCosts;
+    // Node index and grid bit index delta for each offset, valid when the neighbour is known to be in bounds
+    private final int[] delta;
+    private final int[] bitDelta;
+    // Component index of the grid, looked up on first use
+    private ComponentIndex components;
+
+    public GridGraph(BitGrid grid, boolean diagonal) {
+        this.grid = grid;
+        this.words = grid.words;
+        this.diagonal = diagonal;
+        height = grid.getHeight();
+        width = grid.getWidth();
+
+        dx = GridOffsets.dx(diagonal);
+        dy = GridOffsets.dy(diagonal);
+        moveCosts = GridOffsets.moveCosts(diagonal);
+        delta = new int[dx.length];
+        bitDelta = new int[dx.length];
+        for (int k = 0; k < dx.length; k++) {
+            delta[k] = (dy[k] * width) + dx[k];
+            bitDelta[k] = (dy[k] * grid.stride) + dx[k];
+        }
+    }
+
+    /**
+     * Packs {@code grid} into a {@link BitGrid}, later changes to the array are not seen by the graph.
+     */
+    public GridGraph(boolean[][] grid, boolean diagonal) {
+        this(new BitGrid(grid), diagonal);
+    }
+
+    public BitGrid getGrid(){
+        return grid;
+    }
+
+    @Override
+    public int neighbors(int v, int[] out){
+        int x = v % width;
+        int y = v / width;
+        int bit = (y * grid.stride) + x;
+
+        // If there is a blockage at that point, it has no neighbours
+        if (!isOpen(bit)) return 0;
+
+        int count = 0;
+        if (x > 0 && y > 0 && x < width - 1 && y < height - 1) {
+            // Interior cell, every offset is in bounds
+            for (int k = 0; k < dx.length; k++) {
+                if (isOpen(bit + bitDelta[k]))
+                    out[count++] = v + delta[k];
+            }
+        } else {
+            for (int k = 0; k < dx.length; k++) {
+                int newX = x + dx[k];
+                int newY = y + dy[k];
+
+                boolean inBounds = (newX < width && newX >= 0) && (newY < height && newY >= 0);
+                if (inBounds && isOpen(bit + bitDelta[k]))
+                    out[count++] = v + delta[k];
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int neighbors(int v, int[] out, int[] costs){
+        int x = v % width;
+        int y = v / width;
+        int bit = (y * grid.stride) + x;
+        if (!isOpen(bit)) return 0;
+
+        byte[] cells = grid.costs;
+        int count = 0;
+        for (int k = 0; k < dx.length; k++) {
+            int newX = x + dx[k];
+            int newY = y + dy[k];
+
+            boolean inBounds = (newX < width && newX >= 0) && (newY < height && newY >= 0);
+            if (inBounds && isOpen(bit + bitDelta[k])) {
+                int neigh = v + delta[k];
+                out[count] = neigh;
+                costs[count++] = cells == null ? moveCosts[k] : moveCosts[k] * (cells[neigh] & 0xFF);
+            }
+        }
+        return count;
+    }
+
+    private boolean isOpen(int bit){
+        return (words[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    @Override
+    public int maxDegree(){
+        return dx.length;
+    }
+
+    @Override
+    public boolean isOpen(int x, int y){
+        return grid.isOpen(x, y);
+    }
+
+    @Override
+    public void setBlocked(int x, int y, boolean blocked){
+        grid.setBlocked(x, y, blocked);
+    }
+
+    @Override
+    public int getCost(int x, int y){
+        return grid.getCost(x, y);
+    }
+
+    @Override
+    public void setCost(int x, int y, int cost){
+        grid.setCost(x, y, cost);
+    }
+
+    @Override
+    public int maxEdgeCost(){
+        return (diagonal ? DIAGONAL_COST : STRAIGHT_COST) * grid.getMaxCost();
+    }
+
+    @Override
+    public boolean sameComponent(int a, int b){
+        if (components == null)
+            components = grid.components(diagonal);
+        return components.same(a, b);
+    }
+
+    @Override
+    public long getVersion(){
+        return grid.getVersion();
+    }
+
+    @Override
+    public boolean isDiagonal(){
+        return diagonal;
+    }
+
+    @Override
+    public int getSize(){
+        return width * height;
+    }
+
+    @Override
+    public int getWidth(){
+        return width;
+    }
+
+    @Override
+    public int getHeight(){
+        return height;
+    }
+
+}
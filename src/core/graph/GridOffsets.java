@@ -0,0 +1,32 @@
+package core.graph;
+
+/**
+ * Neighbour offset tables shared by the graph implementations, in the order the adjacency has always been generated.
+ */
+final class GridOffsets {
+
+    static final int[] DX_STRAIGHT = {0, -1, 0, 1};
+    static final int[] DY_STRAIGHT = {-1, 0, 1, 0};
+    static final int[] DX_DIAGONAL = {-1, -1, -1, 0, 0, 1, 1, 1};
+    static final int[] DY_DIAGONAL = {-1, 0, 1, -1, 1, -1, 0, 1};
+
+    // Cost of the move along each offset on cells of cost 1
+    static final int[] COST_STRAIGHT = {Graph.STRAIGHT_COST, Graph.STRAIGHT_COST, Graph.STRAIGHT_COST,
+            Graph.STRAIGHT_COST};
+    static final int[] COST_DIAGONAL = {Graph.DIAGONAL_COST, Graph.STRAIGHT_COST, Graph.DIAGONAL_COST,
+            Graph.STRAIGHT_COST, Graph.STRAIGHT_COST, Graph.DIAGONAL_COST, Graph.STRAIGHT_COST, Graph.DIAGONAL_COST};
+
+    private GridOffsets() { }
+
+    static int[] dx(boolean diagonal){
+        return diagonal ? DX_DIAGONAL : DX_STRAIGHT;
+    }
+
+    static int[] dy(boolean diagonal){
+        return diagonal ? DY_DIAGONAL : DY_STRAIGHT;
+    }
+
+    static int[] moveCosts(boolean diagonal){
+        return diagonal ? COST_DIAGONAL : COST_STRAIGHT;
+    }
+}
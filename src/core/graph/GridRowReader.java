@@ -0,0 +1,21 @@
+package core.graph;
+
+import java.io.IOException;
+
+/**
+ * Source of grid rows, top to bottom, for building a graph without holding the whole grid in memory.
+ */
+public interface GridRowReader {
+
+    int getWidth();
+
+    int getHeight();
+
+    /**
+     * Fills {@code row} with the passability of the next row.
+     *
+     * @return false if there are no more rows
+     */
+    boolean readRow(boolean[] row) throws IOException;
+
+}
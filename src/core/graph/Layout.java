@@ -0,0 +1,81 @@
+package core.graph;
+
+import java.util.Random;
+
+/**
+ * Generated grid layouts, for the benchmarks and tests.
+ */
+public enum Layout {
+
+    /**
+     * Every cell is blocked with probability {@code density}.
+     */
+    RANDOM {
+        @Override
+        public boolean[][] generate(int n, double density, long seed) {
+            Random random = new Random(seed);
+            boolean[][] grid = new boolean[n][n];
+            for (boolean[] row : grid)
+                for (int x = 0; x < n; x++)
+                    row[x] = random.nextDouble() >= density;
+            return grid;
+        }
+    },
+
+    /**
+     * Perfect maze carved by a randomised depth first walk over the odd cells, one cell wide corridors.
+     * The density is ignored, about half of the grid is wall.
+     */
+    MAZE {
+        @Override
+        public boolean[][] generate(int n, double density, long seed) {
+            Random random = new Random(seed);
+            boolean[][] grid = new boolean[n][n];
+            int cells = (n - 1) / 2;
+            if (cells == 0)
+                return grid;
+
+            int[] stack = new int[cells * cells];
+            int[] options = new int[4];
+            int top = 0;
+            stack[top++] = 0;
+            grid[1][1] = true;
+
+            while (top > 0) {
+                int cell = stack[top - 1];
+                int cx = cell % cells;
+                int cy = cell / cells;
+
+                int count = 0;
+                if (cy > 0 && !grid[(2 * cy) - 1][(2 * cx) + 1])
+                    options[count++] = cell - cells;
+                if (cx > 0 && !grid[(2 * cy) + 1][(2 * cx) - 1])
+                    options[count++] = cell - 1;
+                if (cy < cells - 1 && !grid[(2 * cy) + 3][(2 * cx) + 1])
+                    options[count++] = cell + cells;
+                if (cx < cells - 1 && !grid[(2 * cy) + 1][(2 * cx) + 3])
+                    options[count++] = cell + 1;
+
+                if (count == 0) {
+                    top--;
+                    continue;
+                }
+
+                int next = options[random.nextInt(count)];
+                int nx = next % cells;
+                int ny = next / cells;
+                // Open the wall between the two cells and the new cell itself
+                grid[cy + ny + 1][cx + nx + 1] = true;
+                grid[(2 * ny) + 1][(2 * nx) + 1] = true;
+                stack[top++] = next;
+            }
+            return grid;
+        }
+    };
+
+    /**
+     * Builds an {@code n} x {@code n} passability grid, the same seed gives the same grid.
+     */
+    public abstract boolean[][] generate(int n, double density, long seed);
+
+}
@@ -0,0 +1,298 @@
+package core.io;
+
+import core.graph.BitGrid;
+import core.graph.Graph;
+import core.graph.GridRowReader;
+import core.path.PathFindingAlgorithm;
+import core.path.SearchResult;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reader for the MovingAI grid benchmark formats. Files are memory mapped and parsed byte by byte, map rows go
+ * straight into the words of a {@link BitGrid} without a String per row.
+ * <p>
+ * A {@code .map} file has a header of {@code type}, {@code height} and {@code width} lines closed by a
+ * {@code map} line, followed by one line of {@code width} characters per row. '.', 'G' and 'S' are passable,
+ * everything else ('@', 'O', 'T', 'W') is blocked.
+ */
+public final class MovingAi {
+
+    private MovingAi() {
+    }
+
+    /**
+     * Reads a {@code .map} file into a grid.
+     */
+    public static BitGrid readMap(Path file) throws IOException {
+        Cursor in = new Cursor(map(file), file);
+        int[] size = readHeader(in);
+        int width = size[0];
+        int height = size[1];
+
+        BitGrid grid = new BitGrid(width, height, false);
+        for (int y = 0; y < height; y++) {
+            for (int i = 0; i < grid.getWordsPerRow(); i++) {
+                long word = 0;
+                int count = Math.min(64, width - (i << 6));
+                for (int k = 0; k < count; k++) {
+                    if (isPassable(in.rowByte(y)))
+                        word |= 1L << k;
+                }
+                grid.setWord(y, i, word);
+            }
+            in.endRow(y);
+        }
+        return grid;
+    }
+
+    /**
+     * Streams the rows of a {@code .map} file, for {@link core.graph.CsrGraph#fromRows(GridRowReader, boolean)}.
+     * The header is read right away.
+     */
+    public static GridRowReader mapRows(Path file) throws IOException {
+        Cursor in = new Cursor(map(file), file);
+        int[] size = readHeader(in);
+
+        return new GridRowReader() {
+            private int y;
+
+            @Override
+            public int getWidth() {
+                return size[0];
+            }
+
+            @Override
+            public int getHeight() {
+                return size[1];
+            }
+
+            @Override
+            public boolean readRow(boolean[] row) throws IOException {
+                if (y == size[1])
+                    return false;
+                for (int x = 0; x < size[0]; x++)
+                    row[x] = isPassable(in.rowByte(y));
+                in.endRow(y);
+                y++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Reads every scenario of a {@code .scen} file, in file order.
+     */
+    public static List<Scenario> readScenarios(Path file) throws IOException {
+        Cursor in = new Cursor(map(file), file);
+        List<Scenario> scenarios = new ArrayList<>();
+
+        in.skipWhitespace();
+        if (in.startsWith("version"))
+            in.skipLine();
+
+        while (in.skipWhitespace()) {
+            int bucket = in.readInt();
+            String map = in.readToken();
+            int mapWidth = in.readInt();
+            int mapHeight = in.readInt();
+            int startX = in.readInt();
+            int startY = in.readInt();
+            int goalX = in.readInt();
+            int goalY = in.readInt();
+            double optimalLength = in.readDecimal();
+            scenarios.add(new Scenario(bucket, map, mapWidth, mapHeight, startX, startY, goalX, goalY, optimalLength));
+        }
+        return scenarios;
+    }
+
+    /**
+     * Runs every scenario through {@code algo} on {@code g}. Results are in scenario order.
+     */
+    public static SearchResult[] replay(PathFindingAlgorithm algo, Graph g, List<Scenario> scenarios) {
+        SearchResult[] results = new SearchResult[scenarios.size()];
+        for (int i = 0; i < results.length; i++) {
+            Scenario scenario = scenarios.get(i);
+            if (scenario.getMapWidth() != g.getWidth() || scenario.getMapHeight() != g.getHeight())
+                throw new IllegalArgumentException("Scenario " + i + " is for a " + scenario.getMapWidth() + "x"
+                        + scenario.getMapHeight() + " map, graph is " + g.getWidth() + "x" + g.getHeight());
+            results[i] = algo.solve(g, scenario.getStart(), scenario.getGoal());
+        }
+        return results;
+    }
+
+    private static boolean isPassable(byte c) {
+        return c == '.' || c == 'G' || c == 'S';
+    }
+
+    private static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException(file + " is too large to map");
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Reads the header up to and including the {@code map} line, returns {width, height}.
+     */
+    private static int[] readHeader(Cursor in) throws IOException {
+        int width = -1;
+        int height = -1;
+        while (true) {
+            if (!in.skipWhitespace())
+                throw in.error("Missing 'map' line");
+
+            String key = in.readToken();
+            if (key.equals("map")) {
+                in.skipLine();
+                break;
+            } else if (key.equals("width")) {
+                width = in.readInt();
+            } else if (key.equals("height")) {
+                height = in.readInt();
+            } else {
+                in.skipLine();
+            }
+        }
+
+        if (width <= 0 || height <= 0)
+            throw in.error("Missing or invalid size " + width + "x" + height);
+        return new int[]{width, height};
+    }
+
+    /**
+     * Position in a mapped file.
+     */
+    private static class Cursor {
+
+        private final ByteBuffer buffer;
+        private final Path file;
+        private final int limit;
+        private int pos;
+
+        Cursor(ByteBuffer buffer, Path file) {
+            this.buffer = buffer;
+            this.file = file;
+            this.limit = buffer.limit();
+        }
+
+        IOException error(String message) {
+            return new IOException(file + " at byte " + pos + ": " + message);
+        }
+
+        /**
+         * Skips spaces and line breaks, returns false at the end of the file.
+         */
+        boolean skipWhitespace() {
+            while (pos < limit && buffer.get(pos) <= ' ')
+                pos++;
+            return pos < limit;
+        }
+
+        void skipLine() {
+            while (pos < limit && buffer.get(pos++) != '\n') {
+                // Skip up to and including the line break
+            }
+        }
+
+        boolean startsWith(String word) {
+            if (pos + word.length() > limit)
+                return false;
+            for (int i = 0; i < word.length(); i++)
+                if (buffer.get(pos + i) != word.charAt(i))
+                    return false;
+            return true;
+        }
+
+        String readToken() throws IOException {
+            skipSpaces();
+            int begin = pos;
+            while (pos < limit && buffer.get(pos) > ' ')
+                pos++;
+            if (begin == pos)
+                throw error("Expected a token");
+
+            byte[] bytes = new byte[pos - begin];
+            for (int i = 0; i < bytes.length; i++)
+                bytes[i] = buffer.get(begin + i);
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+
+        int readInt() throws IOException {
+            skipSpaces();
+            boolean negative = pos < limit && buffer.get(pos) == '-';
+            if (negative)
+                pos++;
+
+            int begin = pos;
+            int value = 0;
+            while (pos < limit && isDigit(buffer.get(pos)))
+                value = (value * 10) + (buffer.get(pos++) - '0');
+            if (begin == pos)
+                throw error("Expected a number");
+            return negative ? -value : value;
+        }
+
+        double readDecimal() throws IOException {
+            skipSpaces();
+            int begin = pos;
+            long digits = 0;
+            long scale = 1;
+            boolean fraction = false;
+            while (pos < limit && (isDigit(buffer.get(pos)) || (!fraction && buffer.get(pos) == '.'))) {
+                byte c = buffer.get(pos++);
+                if (c == '.') {
+                    fraction = true;
+                } else if (!fraction || scale < 1_000_000_000_000L) {
+                    digits = (digits * 10) + (c - '0');
+                    if (fraction)
+                        scale *= 10;
+                }
+            }
+            if (begin == pos)
+                throw error("Expected a decimal number");
+            return (double) digits / scale;
+        }
+
+        /**
+         * Next character of map row {@code y}.
+         */
+        byte rowByte(int y) throws IOException {
+            byte c = pos < limit ? buffer.get(pos) : (byte) '\n';
+            if (c == '\n' || c == '\r')
+                throw error("Row " + y + " is shorter than the map width");
+            pos++;
+            return c;
+        }
+
+        /**
+         * Moves past the line break after map row {@code y}.
+         */
+        void endRow(int y) throws IOException {
+            if (pos < limit && buffer.get(pos) == '\r')
+                pos++;
+            if (pos < limit && buffer.get(pos) != '\n')
+                throw error("Row " + y + " is longer than the map width");
+            pos++;
+        }
+
+        private void skipSpaces() {
+            while (pos < limit && (buffer.get(pos) == ' ' || buffer.get(pos) == '\t'))
+                pos++;
+        }
+
+        private static boolean isDigit(byte c) {
+            return c >= '0' && c <= '9';
+        }
+    }
+
+}
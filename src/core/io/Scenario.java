@@ -0,0 +1,86 @@
+package core.io;
+
+/**
+ * One line of a MovingAI {@code .scen} file: a start to goal query on a map together with its reference length.
+ * The reference length is the octile distance of the optimal path without corner cutting, so it is only
+ * comparable to our costs as a lower bound.
+ */
+public final class Scenario {
+
+    private final int bucket;
+    private final String map;
+    private final int mapWidth;
+    private final int mapHeight;
+    private final int startX;
+    private final int startY;
+    private final int goalX;
+    private final int goalY;
+    private final double optimalLength;
+
+    public Scenario(int bucket, String map, int mapWidth, int mapHeight, int startX, int startY,
+                    int goalX, int goalY, double optimalLength) {
+        this.bucket = bucket;
+        this.map = map;
+        this.mapWidth = mapWidth;
+        this.mapHeight = mapHeight;
+        this.startX = startX;
+        this.startY = startY;
+        this.goalX = goalX;
+        this.goalY = goalY;
+        this.optimalLength = optimalLength;
+    }
+
+    public int getBucket() {
+        return bucket;
+    }
+
+    /**
+     * Map file name as written in the scenario file.
+     */
+    public String getMap() {
+        return map;
+    }
+
+    public int getMapWidth() {
+        return mapWidth;
+    }
+
+    public int getMapHeight() {
+        return mapHeight;
+    }
+
+    public int getStartX() {
+        return startX;
+    }
+
+    public int getStartY() {
+        return startY;
+    }
+
+    public int getGoalX() {
+        return goalX;
+    }
+
+    public int getGoalY() {
+        return goalY;
+    }
+
+    public double getOptimalLength() {
+        return optimalLength;
+    }
+
+    /**
+     * Row-major node of the start, as used by {@link core.graph.Graph}.
+     */
+    public int getStart() {
+        return (startY * mapWidth) + startX;
+    }
+
+    /**
+     * Row-major node of the goal, as used by {@link core.graph.Graph}.
+     */
+    public int getGoal() {
+        return (goalY * mapWidth) + goalX;
+    }
+
+}
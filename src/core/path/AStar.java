@@ -1,7 +1,128 @@
 package core.path;
 
-public class AStar {
+import core.graph.Graph;
 
+/**
+ * A* with a grid heuristic matching the movement model: Manhattan distance for 4-way moves and Chebyshev distance
+ * for 8-way moves, since a diagonal step costs the same as a straight one. Another {@link Heuristic}, such as
+ * {@link Landmarks}, can be plugged in. Among nodes with equal f the one with the higher g is expanded first, which
+ * keeps the search from fanning out over open areas.
+ */
+public class AStar implements PathFindingAlgorithm {
 
+    private final Heuristic heuristic;
+    private final SearchWorkspace workspace;
 
+    private Graph g;
+    private int[] dist;
+    private int[] prev;
+    // A node's dist/prev are valid when seen[node] == stamp, it is closed when closed[node] == stamp
+    private int[] seen;
+    private int[] closed;
+    private int stamp;
+
+    public AStar() {
+        this(Heuristic.GRID);
+    }
+
+    public AStar(SearchWorkspace workspace) {
+        this(Heuristic.GRID, workspace);
+    }
+
+    public AStar(Heuristic heuristic) {
+        this(heuristic, new SearchWorkspace());
+    }
+
+    public AStar(Heuristic heuristic, SearchWorkspace workspace) {
+        this.heuristic = heuristic;
+        this.workspace = workspace;
+    }
+
+    @Override
+    public void solve(Graph g, int start) {
+        this.g = g;
+        aStar(start, -1);
+    }
+
+    /**
+     * Searches towards {@code end}. Only {@code end} and the nodes closed before it can be checked afterwards.
+     * If {@code end} is -1 there is no heuristic and the whole reachable area is explored.
+     */
+    @Override
+    public SearchResult solve(Graph g, int start, int end) {
+        this.g = g;
+        aStar(start, end);
+        return SearchResult.of(this, start, end);
+    }
+
+    private void aStar(int start, int end){
+        workspace.begin(g.getSize());
+        stamp = workspace.stamp;
+        dist = workspace.dist();
+        prev = workspace.prev();
+        seen = workspace.seen();
+        closed = workspace.closed();
+        int[] neighbors = workspace.neighbors(g.maxDegree());
+        IndexedMinHeap open = workspace.heap();
+        if (end >= 0 && !g.sameComponent(start, end)) {
+            // Separate regions, there is nothing to search
+            workspace.stats().finish(this, 0, 0, 0);
+            return;
+        }
+
+        dist[start] = 0;
+        seen[start] = stamp;
+        open.push(start, GridHeuristic.key(0, estimate(start, end)));
+        int expanded = 0;
+        int relaxed = 0;
+
+        while (!open.isEmpty()) {
+            int current = open.poll();
+            closed[current] = stamp;
+            expanded++;
+            if (current == end)
+                break;
+
+            int count = g.neighbors(current, neighbors);
+            relaxed += count;
+            for (int i = 0; i < count; i++) {
+                int neigh = neighbors[i];
+                if (closed[neigh] == stamp)
+                    continue;
+
+                int temp = dist[current] + 1;
+                if (seen[neigh] != stamp || temp < dist[neigh]) {
+                    seen[neigh] = stamp;
+                    dist[neigh] = temp;
+                    prev[neigh] = current;
+                    open.push(neigh, GridHeuristic.key(temp, estimate(neigh, end)));
+                }
+            }
+        }
+        workspace.stats().finish(this, expanded, relaxed, open.peakSize());
+    }
+
+    private int estimate(int node, int end){
+        return end < 0 ? 0 : heuristic.estimate(g, node, end);
+    }
+
+    @Override
+    public SearchStats getStats() {
+        return workspace.stats();
+    }
+
+    @Override
+    public boolean checkPath(int end) {
+        return closed[end] == stamp;
+    }
+
+    @Override
+    public int getCost(int start, int end) {
+        return dist[end];
+    }
+
+    @Override
+    public int[] getPath(int start, int end) {
+        return Backtrace.follow(prev, start, end);
+    }
 }
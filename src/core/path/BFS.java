@@ -2,59 +2,98 @@ package core.path;
 
 import core.graph.Graph;
 
-import java.util.*;
-
 public class BFS implements PathFindingAlgorithm {
 
+    private final SearchWorkspace workspace;
+
     private Graph g;
-    private boolean[] visited;
+    // A node is visited when visited[node] == stamp
+    private int[] visited;
     private int[] prev;
+    private int stamp;
+
+    public BFS() {
+        this(new SearchWorkspace());
+    }
+
+    public BFS(SearchWorkspace workspace) {
+        this.workspace = workspace;
+    }
 
     @Override
     public void solve(Graph g, int start) {
         this.g = g;
-        bfs(start);
+        bfs(start, -1);
+    }
+
+    /**
+     * Same as {@link #solve(Graph, int)}, but stops as soon as {@code end} is discovered.
+     */
+    @Override
+    public SearchResult solve(Graph g, int start, int end) {
+        this.g = g;
+        bfs(start, end);
+        return SearchResult.of(this, start, end);
     }
 
-    private void bfs(int start){
-        int size = g.getSize();
+    private void bfs(int start, int end){
+        workspace.begin(g.getSize());
+        stamp = workspace.stamp;
+        visited = workspace.seen();
+        prev = workspace.prev();
+        int[] neighbors = workspace.neighbors(g.maxDegree());
+        IntDeque queue = workspace.deque();
+        if (end >= 0 && !g.sameComponent(start, end)) {
+            // Separate regions, there is nothing to search
+            workspace.stats().finish(this, 0, 0, 0);
+            return;
+        }
 
-        visited = new boolean[size];
-        prev = new int[size];
-        Queue<Integer> queue = new LinkedList<>();
+        int expanded = 0;
+        int relaxed = 0;
 
-        visited[start] = true;
-        queue.add(start);
+        visited[start] = stamp;
+        if (start != end)
+            queue.addLast(start);
 
+        search:
         while(!queue.isEmpty()){
-            int cur = queue.poll();
+            int cur = queue.pollFirst();
+            expanded++;
 
-            for (int neigh : g.getNeighborsList(cur)){
-                if (!visited[neigh]){
-                    visited[neigh] = true;
+            int count = g.neighbors(cur, neighbors);
+            relaxed += count;
+            for (int i = 0; i < count; i++){
+                int neigh = neighbors[i];
+                if (visited[neigh] != stamp){
+                    visited[neigh] = stamp;
                     prev[neigh] = cur;
-                    queue.add(neigh);
+                    if (neigh == end)
+                        break search;
+                    queue.addLast(neigh);
                 }
             }
         }
+        workspace.stats().finish(this, expanded, relaxed, queue.peakSize());
     }
 
     @Override
-    public boolean checkPath(int end) {
-        return visited[end];
+    public SearchStats getStats() {
+        return workspace.stats();
     }
 
     @Override
-    public List<Integer> getBacktrace(int start, int end) {
+    public boolean checkPath(int end) {
+        return visited[end] == stamp;
+    }
 
-        List<Integer> ret = new ArrayList<>();
-        int current = prev[end];
-        while (current != start) {
-            ret.add(current);
-            current = prev[current];
-        }
+    @Override
+    public int getCost(int start, int end) {
+        return Backtrace.moves(prev, start, end);
+    }
 
-        Collections.reverse(ret);
-        return ret;
+    @Override
+    public int[] getPath(int start, int end) {
+        return Backtrace.follow(prev, start, end);
     }
 }
@@ -0,0 +1,33 @@
+package core.path;
+
+/**
+ * Paths read back from a predecessor array, where {@code prev[v]} is the node before {@code v} on its path and
+ * following it from any reached node ends at the start.
+ */
+final class Backtrace {
+
+    private Backtrace() { }
+
+    /**
+     * Number of moves from {@code start} to {@code end}.
+     */
+    static int moves(int[] prev, int start, int end) {
+        int moves = 0;
+        for (int v = end; v != start; v = prev[v])
+            moves++;
+        return moves;
+    }
+
+    /**
+     * Path from {@code start} to {@code end}, both included. The chain is walked twice, once to size the array and
+     * once to fill it from the back, so the path never has to be reversed.
+     */
+    static int[] follow(int[] prev, int start, int end) {
+        int[] path = new int[moves(prev, start, end) + 1];
+        int i = path.length;
+        for (int v = end; v != start; v = prev[v])
+            path[--i] = v;
+        path[0] = start;
+        return path;
+    }
+}
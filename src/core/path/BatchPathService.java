@@ -0,0 +1,83 @@
+package core.path;
+
+import core.graph.Graph;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * Runs many start to end queries against one graph in parallel. The graph is only read, every worker thread
+ * gets its own algorithm instance (and with it its own workspace) from the given factory.
+ */
+public class BatchPathService {
+
+    // Queries handled by one task before it stops splitting
+    private static final int BATCH = 16;
+
+    private final Graph graph;
+    private final ForkJoinPool pool;
+    private final ThreadLocal<PathFindingAlgorithm> algorithms;
+
+    public BatchPathService(Graph graph, Supplier<? extends PathFindingAlgorithm> factory) {
+        this(graph, factory, ForkJoinPool.commonPool());
+    }
+
+    public BatchPathService(Graph graph, Supplier<? extends PathFindingAlgorithm> factory, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+        this.algorithms = ThreadLocal.withInitial(factory);
+    }
+
+    /**
+     * Solves a single query on the calling thread.
+     */
+    public SearchResult solve(int start, int end) {
+        return algorithms.get().solve(graph, start, end);
+    }
+
+    /**
+     * Solves {@code starts[i]} to {@code ends[i]} for every i, spread over the pool.
+     */
+    public SearchResult[] solveAll(int[] starts, int[] ends) {
+        if (starts.length != ends.length)
+            throw new IllegalArgumentException("Got " + starts.length + " starts and " + ends.length + " ends");
+
+        SearchResult[] results = new SearchResult[starts.length];
+        pool.invoke(new QueryTask(starts, ends, results, 0, starts.length));
+        return results;
+    }
+
+    private class QueryTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] starts;
+        private final int[] ends;
+        private final SearchResult[] results;
+        private final int from;
+        private final int to;
+
+        QueryTask(int[] starts, int[] ends, SearchResult[] results, int from, int to) {
+            this.starts = starts;
+            this.ends = ends;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH) {
+                PathFindingAlgorithm algo = algorithms.get();
+                for (int i = from; i < to; i++)
+                    results[i] = algo.solve(graph, starts[i], ends[i]);
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(new QueryTask(starts, ends, results, from, mid),
+                    new QueryTask(starts, ends, results, mid, to));
+        }
+    }
+}
@@ -1,85 +1,186 @@
 package core.path;
 
+import core.graph.EdgeCost;
 import core.graph.Graph;
 
-import java.util.*;
-
+/**
+ * Queue based Bellman-Ford (SPFA). Edge costs come from an {@link EdgeCost} and may be negative.
+ * The queue is ordered with the Small Label First and Large Label Last rules, which usually cuts the number
+ * of times a node is requeued by a large factor. Large Label Last moves at most {@link #MAX_ROTATIONS} nodes to the
+ * back per pop, so the ordering adds O(1) work to every pop and never turns it into a scan of the queue. A node is
+ * never queued twice at the same time, and a node whose shortest path grows to {@code size} edges proves a negative
+ * cycle, which ends the search.
+ * <p>
+ * Labels are kept as {@code long}, so long chains of large or negative costs can't wrap around before a negative
+ * cycle is detected. Labels are only final once the queue runs dry, so a targeted solve computes the whole tree.
+ */
 public class BellmanFord implements PathFindingAlgorithm {
 
+    private static final long INF = Long.MAX_VALUE;
+    // Most nodes Large Label Last moves to the back of the queue before a pop
+    private static final int MAX_ROTATIONS = 4;
+
+    private final EdgeCost cost;
+    private final SearchWorkspace workspace;
+
     private Graph g;
-    private boolean[] visited;
+    // weights/backTrace of a node are valid when reached[node] == stamp, it is queued when queued[node] == stamp
+    private long[] weights;
     private int[] backTrace;
+    private int[] reached;
+    private int stamp;
+    private boolean negativeCycle;
+
+    public BellmanFord() {
+        this(EdgeCost.UNIT);
+    }
+
+    public BellmanFord(EdgeCost cost) {
+        this(cost, new SearchWorkspace());
+    }
+
+    public BellmanFord(EdgeCost cost, SearchWorkspace workspace) {
+        this.cost = cost;
+        this.workspace = workspace;
+    }
 
     @Override
     public void solve(Graph g, int start) {
         this.g = g;
-        bellmanFord(start);
+        bellmanFord(start, -1);
     }
 
-    private void bellmanFord(int start){
+    /**
+     * Computes the whole tree like {@link #solve(Graph, int)}, unless {@code end} is in a separate region.
+     */
+    @Override
+    public SearchResult solve(Graph g, int start, int end) {
+        this.g = g;
+        bellmanFord(start, end);
+        return SearchResult.of(this, start, end);
+    }
 
+    private void bellmanFord(int start, int end){
+
+        workspace.begin(g.getSize());
+        stamp = workspace.stamp;
         int size = g.getSize();
-        Queue<Integer> queue = new LinkedList<>();
-        backTrace = new int[size];
-        int[] weights = new int[size];
-        visited = new boolean[size];
+        IntDeque queue = workspace.deque();
+        backTrace = workspace.prev();
+        weights = workspace.labels();
+        reached = workspace.seen();
+        int[] queued = workspace.queued();
+        // Number of edges on the current shortest path to a node
+        int[] hops = workspace.hops();
+        int[] neighbors = workspace.neighbors(g.maxDegree());
+        negativeCycle = false;
+        if (end >= 0 && !g.sameComponent(start, end)) {
+            // Separate regions, there is nothing to search
+            workspace.stats().finish(this, 0, 0, 0);
+            return;
+        }
 
-        Arrays.fill(weights, Integer.MAX_VALUE);
-        Arrays.fill(visited, false);
         weights[start] = 0;
-        queue.add(start);
-
+        hops[start] = 0;
+        reached[start] = stamp;
+        queue.addLast(start);
+        queued[start] = stamp;
+        // Sum of the labels in the queue, for Large Label Last
+        long queuedSum = 0;
+        int expanded = 0;
+        int relaxed = 0;
+
+        search:
         while(!queue.isEmpty()) {
-            int current = queue.poll();
-            visited[current] = true;
-            int min = Integer.MAX_VALUE;
-            int minValue = Integer.MAX_VALUE;
-            boolean minFound = false;
+            // Large Label Last: rotate nodes heavier than the queue average to the back, a bounded number of them
+            for (int rotations = Math.min(queue.size() - 1, MAX_ROTATIONS); rotations > 0; rotations--) {
+                int front = queue.peekFirst();
+                if (weights[front] <= queuedSum / queue.size())
+                    break;
+                queue.addLast(queue.pollFirst());
+            }
 
-            // Update weights from current vertex to all its neighbors
-            for (int neigh : g.getNeighborsList(current)) {
+            int current = queue.pollFirst();
+            queued[current] = 0;
+            queuedSum -= weights[current];
+            expanded++;
 
-                if (visited[neigh])
+            // Update weights from current vertex to all its neighbors
+            int count = g.neighbors(current, neighbors);
+            relaxed += count;
+            for (int i = 0; i < count; i++) {
+                int neigh = neighbors[i];
+                long temp = weights[current] + cost.cost(current, neigh);
+
+                boolean isQueued = queued[neigh] == stamp;
+                if (reached[neigh] == stamp && temp >= weights[neigh])
                     continue;
 
-                if (weights[current] < weights[neigh]) {
-                    weights[neigh] = weights[current] + 1;
-                    backTrace[neigh] = current;
+                if (isQueued)
+                    queuedSum -= weights[neigh];
+                reached[neigh] = stamp;
+                weights[neigh] = temp;
+                backTrace[neigh] = current;
+                hops[neigh] = hops[current] + 1;
+
+                if (hops[neigh] >= size) {
+                    negativeCycle = true;
+                    break search;
                 }
-            }
 
-            for (int i = 0; i < weights.length; i++) {
-                /*
-                 * Iterate through all vertices
-                 * Select the smallest weight, which is not visited
-                 */
-                if (!visited[i] && weights[i] < minValue) {
-                    minFound = true;
-                    min = i;
-                    minValue = weights[i];
+                if (isQueued) {
+                    queuedSum += temp;
+                    continue;
                 }
-            }
 
-            if (minFound)
-                queue.add(min);
+                // Small Label First: a node better than the head of the queue goes in front
+                if (!queue.isEmpty() && temp < weights[queue.peekFirst()])
+                    queue.addFirst(neigh);
+                else
+                    queue.addLast(neigh);
+                queued[neigh] = stamp;
+                queuedSum += temp;
+            }
         }
+        workspace.stats().finish(this, expanded, relaxed, queue.peakSize());
+    }
+
+    /**
+     * Whether the last search ran into a negative cycle reachable from the start. Distances are meaningless then.
+     */
+    public boolean hasNegativeCycle() {
+        return negativeCycle;
+    }
+
+    /**
+     * Cost of the shortest path to {@code end} found by the last search, {@link Long#MAX_VALUE} if it wasn't reached.
+     */
+    public long getDistance(int end) {
+        return reached[end] == stamp ? weights[end] : INF;
     }
 
+    /**
+     * Cost of the path to {@code end}, {@link Integer#MAX_VALUE} if it wasn't reached.
+     *
+     * @throws ArithmeticException if the cost doesn't fit in an int, {@link #getDistance(int)} has it in full
+     */
     @Override
-    public boolean checkPath(int end) {
-        return visited[end];
+    public int getCost(int start, int end) {
+        return reached[end] == stamp ? Math.toIntExact(weights[end]) : Integer.MAX_VALUE;
     }
 
     @Override
-    public List<Integer> getBacktrace(int start, int end) {
-        List<Integer> ret = new ArrayList<>();
-        int current = backTrace[end];
-        while (current != start) {
-            ret.add(current);
-            current = backTrace[current];
-        }
+    public SearchStats getStats() {
+        return workspace.stats();
+    }
+
+    @Override
+    public boolean checkPath(int end) {
+        return !negativeCycle && reached[end] == stamp;
+    }
 
-        Collections.reverse(ret);
-        return ret;
+    @Override
+    public int[] getPath(int start, int end) {
+        return Backtrace.follow(backTrace, start, end);
     }
 }
@@ -0,0 +1,187 @@
+package core.path;
+
+import core.graph.Graph;
+
+/**
+ * Breadth first search from both ends at once. Each round expands one whole level of the smaller frontier,
+ * the backward search follows {@link Graph#reverseNeighbors(int, int[])}. The search stops after the level in
+ * which the two sides first meet, so only about half of the area a one sided search covers is explored.
+ */
+public class BidirectionalBFS implements PathFindingAlgorithm {
+
+    private final SearchWorkspace workspace;
+
+    private Graph g;
+    private int[] prev;
+    private int[] next;
+    // Nodes reached forward, valid when seen[node] == stamp
+    private int[] seen;
+    private int stamp;
+    private boolean found;
+    // End of the last query, -1 after a whole-tree search
+    private int target;
+
+    public BidirectionalBFS() {
+        this(new SearchWorkspace());
+    }
+
+    public BidirectionalBFS(SearchWorkspace workspace) {
+        this.workspace = workspace;
+    }
+
+    /**
+     * Without a target there is nothing to meet, so only the forward half runs, as a plain breadth first search
+     * over the whole tree. Afterwards every reached node can be checked.
+     */
+    @Override
+    public void solve(Graph g, int start) {
+        this.g = g;
+        this.target = -1;
+        workspace.begin(g.getSize());
+        stamp = workspace.stamp;
+        prev = workspace.prev();
+        seen = workspace.seen();
+        int[] neighbors = workspace.neighbors(g.maxDegree());
+        IntDeque queue = workspace.deque();
+
+        seen[start] = stamp;
+        queue.addLast(start);
+        int expanded = 0;
+        int relaxed = 0;
+        while (!queue.isEmpty()) {
+            int cur = queue.pollFirst();
+            int count = g.neighbors(cur, neighbors);
+            expanded++;
+            relaxed += count;
+            for (int i = 0; i < count; i++) {
+                int neigh = neighbors[i];
+                if (seen[neigh] != stamp) {
+                    seen[neigh] = stamp;
+                    prev[neigh] = cur;
+                    queue.addLast(neigh);
+                }
+            }
+        }
+        workspace.stats().finish(this, expanded, relaxed, queue.peakSize());
+    }
+
+    @Override
+    public SearchResult solve(Graph g, int start, int end) {
+        this.g = g;
+        this.target = end;
+        bfs(start, end);
+        return SearchResult.of(this, start, end);
+    }
+
+    private void bfs(int start, int end){
+        workspace.begin(g.getSize());
+        int stamp = workspace.stamp;
+        prev = workspace.prev();
+        next = workspace.next();
+        // A side's distance to a node is valid when its seen entry equals stamp
+        int[] distForward = workspace.dist();
+        int[] distBackward = workspace.dist2();
+        int[] seenForward = workspace.seen();
+        int[] seenBackward = workspace.seen2();
+        int[] neighbors = workspace.neighbors(g.maxDegree());
+
+        found = start == end;
+        if (found || !g.sameComponent(start, end)) {
+            // Nothing to search, either already there or in separate regions
+            workspace.stats().finish(this, 0, 0, 0);
+            return;
+        }
+
+        IntDeque forward = workspace.deque();
+        IntDeque backward = workspace.deque2();
+        distForward[start] = 0;
+        distBackward[end] = 0;
+        seenForward[start] = stamp;
+        seenBackward[end] = stamp;
+        forward.addLast(start);
+        backward.addLast(end);
+
+        int best = Integer.MAX_VALUE;
+        // Edge from the forward tree to the backward tree on the best path found so far
+        int meetFrom = -1;
+        int meetTo = -1;
+        int expanded = 0;
+        int relaxed = 0;
+
+        while (!forward.isEmpty() && !backward.isEmpty()) {
+            boolean isForward = forward.size() <= backward.size();
+            IntDeque queue = isForward ? forward : backward;
+            int[] own = isForward ? distForward : distBackward;
+            int[] other = isForward ? distBackward : distForward;
+            int[] ownSeen = isForward ? seenForward : seenBackward;
+            int[] otherSeen = isForward ? seenBackward : seenForward;
+            int[] links = isForward ? prev : next;
+
+            for (int level = queue.size(); level > 0; level--) {
+                int cur = queue.pollFirst();
+                int count = isForward ? g.neighbors(cur, neighbors) : g.reverseNeighbors(cur, neighbors);
+                expanded++;
+                relaxed += count;
+                for (int i = 0; i < count; i++) {
+                    int neigh = neighbors[i];
+                    if (otherSeen[neigh] == stamp) {
+                        int length = own[cur] + 1 + other[neigh];
+                        if (length < best) {
+                            best = length;
+                            meetFrom = isForward ? cur : neigh;
+                            meetTo = isForward ? neigh : cur;
+                        }
+                    } else if (ownSeen[neigh] != stamp) {
+                        ownSeen[neigh] = stamp;
+                        own[neigh] = own[cur] + 1;
+                        links[neigh] = cur;
+                        queue.addLast(neigh);
+                    }
+                }
+            }
+
+            // Every shorter path would have been seen within this level
+            if (best != Integer.MAX_VALUE)
+                break;
+        }
+
+        workspace.stats().finish(this, expanded, relaxed, forward.peakSize() + backward.peakSize());
+        found = best != Integer.MAX_VALUE;
+        if (found)
+            join(meetFrom, meetTo, end);
+    }
+
+    /**
+     * Hooks the backward half of the path onto the forward tree, so prev leads from end back to start.
+     */
+    private void join(int from, int to, int end){
+        prev[to] = from;
+        int cur = to;
+        while (cur != end) {
+            prev[next[cur]] = cur;
+            cur = next[cur];
+        }
+    }
+
+    @Override
+    public SearchStats getStats() {
+        return workspace.stats();
+    }
+
+    @Override
+    public boolean checkPath(int end) {
+        if (target < 0)
+            return seen[end] == stamp;
+        return found && end == target;
+    }
+
+    @Override
+    public int getCost(int start, int end) {
+        return Backtrace.moves(prev, start, end);
+    }
+
+    @Override
+    public int[] getPath(int start, int end) {
+        return Backtrace.follow(prev, start, end);
+    }
+}
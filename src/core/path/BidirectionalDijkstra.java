@@ -0,0 +1,212 @@
+package core.path;
+
+import core.graph.EdgeCost;
+import core.graph.Graph;
+
+/**
+ * Dijkstra from both ends at once, always advancing the side with the smaller open list. The backward search
+ * follows {@link Graph#reverseNeighbors(int, int[])} and charges the cost of the edge in its forward direction,
+ * so asymmetric {@link EdgeCost}s are handled. Costs must not be negative.
+ */
+public class BidirectionalDijkstra implements PathFindingAlgorithm {
+
+    private final EdgeCost cost;
+    private final SearchWorkspace workspace;
+
+    private Graph g;
+    private int[] prev;
+    private int[] next;
+    // Forward distances and settled nodes of a whole-tree search, valid when the entries equal stamp
+    private long[] dist;
+    private int[] settled;
+    private int stamp;
+    private boolean found;
+    // End of the last query, -1 after a whole-tree search
+    private int target;
+    private long distance;
+
+    public BidirectionalDijkstra() {
+        this(EdgeCost.UNIT);
+    }
+
+    public BidirectionalDijkstra(EdgeCost cost) {
+        this(cost, new SearchWorkspace());
+    }
+
+    public BidirectionalDijkstra(EdgeCost cost, SearchWorkspace workspace) {
+        this.cost = cost;
+        this.workspace = workspace;
+    }
+
+    /**
+     * Without a target there is nothing to meet, so only the forward half runs, as a plain Dijkstra over the
+     * whole tree. Afterwards every settled node can be checked.
+     */
+    @Override
+    public void solve(Graph g, int start) {
+        this.g = g;
+        this.target = -1;
+        workspace.begin(g.getSize());
+        stamp = workspace.stamp;
+        prev = workspace.prev();
+        dist = workspace.labels();
+        settled = workspace.closed();
+        int[] seen = workspace.seen();
+        int[] neighbors = workspace.neighbors(g.maxDegree());
+        IndexedMinHeap queue = workspace.heap();
+
+        dist[start] = 0;
+        seen[start] = stamp;
+        queue.push(start, 0);
+        int expanded = 0;
+        int relaxed = 0;
+        while (!queue.isEmpty()) {
+            int cur = queue.poll();
+            settled[cur] = stamp;
+            expanded++;
+
+            int count = g.neighbors(cur, neighbors);
+            relaxed += count;
+            for (int i = 0; i < count; i++) {
+                int neigh = neighbors[i];
+                long temp = dist[cur] + cost.cost(cur, neigh);
+                if (settled[neigh] != stamp && (seen[neigh] != stamp || temp < dist[neigh])) {
+                    seen[neigh] = stamp;
+                    dist[neigh] = temp;
+                    prev[neigh] = cur;
+                    queue.push(neigh, temp);
+                }
+            }
+        }
+        workspace.stats().finish(this, expanded, relaxed, queue.peakSize());
+    }
+
+    @Override
+    public SearchResult solve(Graph g, int start, int end) {
+        this.g = g;
+        this.target = end;
+        dijkstra(start, end);
+        return SearchResult.of(this, start, end);
+    }
+
+    private void dijkstra(int start, int end){
+        workspace.begin(g.getSize());
+        int stamp = workspace.stamp;
+        prev = workspace.prev();
+        next = workspace.next();
+        // A side's distance to a node is valid when its seen entry equals stamp
+        long[] distForward = workspace.labels();
+        long[] distBackward = workspace.labels2();
+        int[] seenForward = workspace.seen();
+        int[] seenBackward = workspace.seen2();
+        int[] settledForward = workspace.closed();
+        int[] settledBackward = workspace.closed2();
+        int[] neighbors = workspace.neighbors(g.maxDegree());
+
+        found = start == end;
+        distance = 0;
+        if (found || !g.sameComponent(start, end)) {
+            // Nothing to search, either already there or in separate regions
+            workspace.stats().finish(this, 0, 0, 0);
+            return;
+        }
+
+        IndexedMinHeap forward = workspace.heap();
+        IndexedMinHeap backward = workspace.heap2();
+        distForward[start] = 0;
+        distBackward[end] = 0;
+        seenForward[start] = stamp;
+        seenBackward[end] = stamp;
+        forward.push(start, 0);
+        backward.push(end, 0);
+
+        long best = Long.MAX_VALUE;
+        // Edge from the forward tree to the backward tree on the best path found so far
+        int meetFrom = -1;
+        int meetTo = -1;
+        int expanded = 0;
+        int relaxed = 0;
+
+        while (!forward.isEmpty() && !backward.isEmpty()) {
+            // No path through unsettled nodes can beat the best meeting any more
+            if (forward.peekKey() + backward.peekKey() >= best)
+                break;
+
+            boolean isForward = forward.size() <= backward.size();
+            IndexedMinHeap queue = isForward ? forward : backward;
+            long[] own = isForward ? distForward : distBackward;
+            long[] other = isForward ? distBackward : distForward;
+            int[] ownSeen = isForward ? seenForward : seenBackward;
+            int[] otherSeen = isForward ? seenBackward : seenForward;
+            int[] settled = isForward ? settledForward : settledBackward;
+            int[] links = isForward ? prev : next;
+
+            int cur = queue.poll();
+            settled[cur] = stamp;
+            expanded++;
+
+            int count = isForward ? g.neighbors(cur, neighbors) : g.reverseNeighbors(cur, neighbors);
+            relaxed += count;
+            for (int i = 0; i < count; i++) {
+                int neigh = neighbors[i];
+                long temp = own[cur] + (isForward ? cost.cost(cur, neigh) : cost.cost(neigh, cur));
+
+                if (settled[neigh] != stamp && (ownSeen[neigh] != stamp || temp < own[neigh])) {
+                    ownSeen[neigh] = stamp;
+                    own[neigh] = temp;
+                    links[neigh] = cur;
+                    queue.push(neigh, temp);
+                }
+
+                if (otherSeen[neigh] == stamp && temp + other[neigh] < best) {
+                    best = temp + other[neigh];
+                    meetFrom = isForward ? cur : neigh;
+                    meetTo = isForward ? neigh : cur;
+                }
+            }
+        }
+
+        workspace.stats().finish(this, expanded, relaxed, forward.peakSize() + backward.peakSize());
+        found = best != Long.MAX_VALUE;
+        distance = best;
+        if (found)
+            join(meetFrom, meetTo, end);
+    }
+
+    /**
+     * Hooks the backward half of the path onto the forward tree, so prev leads from end back to start.
+     */
+    private void join(int from, int to, int end){
+        prev[to] = from;
+        int cur = to;
+        while (cur != end) {
+            prev[next[cur]] = cur;
+            cur = next[cur];
+        }
+    }
+
+    /**
+     * @throws ArithmeticException if the cost doesn't fit in an int
+     */
+    @Override
+    public int getCost(int start, int end) {
+        return Math.toIntExact(target < 0 ? dist[end] : distance);
+    }
+
+    @Override
+    public SearchStats getStats() {
+        return workspace.stats();
+    }
+
+    @Override
+    public boolean checkPath(int end) {
+        if (target < 0)
+            return settled[end] == stamp;
+        return found && end == target;
+    }
+
+    @Override
+    public int[] getPath(int start, int end) {
+        return Backtrace.follow(prev, start, end);
+    }
+}
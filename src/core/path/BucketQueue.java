@@ -0,0 +1,139 @@
+package core.path;
+
+import java.util.Arrays;
+
+/**
+ * Monotone priority queue of node ids with small integer keys, for Dial's algorithm. There is one bucket per key
+ * modulo the number of buckets, each a doubly linked list threaded through per-node arrays, so insertion,
+ * decrease-key and removal are O(1). Polling scans forward from the bucket of the last key polled to the next
+ * bucket in use, wrapping round after the last one.
+ * <p>
+ * Keys must never be below the last key polled, or 0 before the first poll, and must stay below it plus the number
+ * of buckets. With one bucket more than the largest edge cost both hold for a shortest path search, which then
+ * scans each key at most once: O(V + E + D) for a largest distance D. Keys are {@code long} and the cursor is a
+ * bucket index, so neither overflows however far the distances grow.
+ */
+final class BucketQueue {
+
+    private static final int[] EMPTY = new int[0];
+
+    // First node of every bucket, -1 if the bucket is empty
+    private int[] heads = EMPTY;
+    private int buckets;
+    // Links of the node's bucket list, and the node's key, which is only valid while the node is queued
+    private int[] next;
+    private int[] prev;
+    private long[] keys;
+    // Whether a node is queued
+    private boolean[] queued;
+    // Bucket of the last key polled, where the next poll starts looking
+    private int cursor;
+    private int size;
+    // Largest size since the last clear
+    private int peak;
+
+    BucketQueue(int capacity) {
+        next = new int[capacity];
+        prev = new int[capacity];
+        keys = new long[capacity];
+        queued = new boolean[capacity];
+    }
+
+    /**
+     * Makes room for node ids up to {@code capacity - 1}, keeping the current content.
+     */
+    void ensureCapacity(int capacity) {
+        if (capacity <= queued.length)
+            return;
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        queued = Arrays.copyOf(queued, capacity);
+    }
+
+    /**
+     * Empties the queue and sets the number of buckets, which bounds how far apart the queued keys may be.
+     */
+    void reset(int buckets) {
+        clear();
+        if (heads.length < buckets) {
+            heads = new int[buckets];
+            Arrays.fill(heads, -1);
+        }
+        this.buckets = buckets;
+    }
+
+    /**
+     * Empties the queue in time proportional to its size and the number of buckets.
+     */
+    void clear() {
+        for (int b = 0; b < buckets && size > 0; b++) {
+            for (int node = heads[b]; node != -1; node = next[node]) {
+                queued[node] = false;
+                size--;
+            }
+        }
+        Arrays.fill(heads, 0, buckets, -1);
+        size = 0;
+        peak = 0;
+        cursor = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int peakSize() {
+        return peak;
+    }
+
+    /**
+     * Inserts {@code node}, or lowers its key if it is already queued with a larger one.
+     */
+    void push(int node, long key) {
+        if (queued[node]) {
+            if (key >= keys[node])
+                return;
+            unlink(node);
+        } else {
+            queued[node] = true;
+            if (++size > peak)
+                peak = size;
+        }
+        keys[node] = key;
+
+        int b = (int) (key % buckets);
+        next[node] = heads[b];
+        prev[node] = -1;
+        if (heads[b] != -1)
+            prev[heads[b]] = node;
+        heads[b] = node;
+    }
+
+    /**
+     * Removes and returns a node with the smallest key.
+     */
+    int poll() {
+        while (heads[cursor] == -1)
+            cursor = cursor + 1 == buckets ? 0 : cursor + 1;
+        int node = heads[cursor];
+        unlink(node);
+        queued[node] = false;
+        size--;
+        return node;
+    }
+
+    private void unlink(int node) {
+        int b = (int) (keys[node] % buckets);
+        if (prev[node] != -1)
+            next[prev[node]] = next[node];
+        else
+            heads[b] = next[node];
+        if (next[node] != -1)
+            prev[next[node]] = prev[node];
+    }
+}
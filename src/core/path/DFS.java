@@ -2,52 +2,130 @@ package core.path;
 
 import core.graph.Graph;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
 
+/**
+ * Depth first search driven by an explicit stack, so the depth of the search isn't limited by the thread stack.
+ * Nodes are visited in the same order as a recursive search would visit them.
+ */
 public class DFS implements PathFindingAlgorithm{
 
+    private final SearchWorkspace workspace;
+
     private int[] backtrace;
-    private boolean[] visited;
+    // A node is visited when visited[node] == stamp
+    private int[] visited;
+    private int stamp;
     private Graph graph;
 
+    public DFS() {
+        this(new SearchWorkspace());
+    }
+
+    public DFS(SearchWorkspace workspace) {
+        this.workspace = workspace;
+    }
+
     @Override
     public void solve(Graph g, int start) {
-        visited = new boolean[g.getSize()];
-        this.backtrace = new int[g.getSize()];
-        Arrays.fill(backtrace, -1);
-        this.graph = g;
-        dfs(-1, start);
+        dfs(g, start, -1);
+    }
+
+    /**
+     * Same as {@link #solve(Graph, int)}, but stops as soon as {@code end} is reached.
+     */
+    @Override
+    public SearchResult solve(Graph g, int start, int end) {
+        dfs(g, start, end);
+        return SearchResult.of(this, start, end);
+    }
+
+    @Override
+    public SearchStats getStats() {
+        return workspace.stats();
     }
 
     @Override
     public boolean checkPath(int end) {
-        return visited[end];
+        return visited[end] == stamp;
     }
 
     @Override
-    public List<Integer> getBacktrace(int start, int end) {
-        List<Integer> ret = new ArrayList<>();
-        int temp = backtrace[end];
-        while (temp != start) {
-            ret.add(temp);
-            temp = backtrace[temp];
-        }
-        Collections.reverse(ret);
-        return ret;
+    public int getCost(int start, int end) {
+        return Backtrace.moves(backtrace, start, end);
     }
 
-    private void dfs(int s, int v){
-        if (visited[v])
+    @Override
+    public int[] getPath(int start, int end) {
+        return Backtrace.follow(backtrace, start, end);
+    }
+
+    private void dfs(Graph g, int start, int end){
+        workspace.begin(g.getSize());
+        stamp = workspace.stamp;
+        visited = workspace.seen();
+        backtrace = workspace.prev();
+        this.graph = g;
+        if (end >= 0 && !g.sameComponent(start, end)) {
+            // Separate regions, there is nothing to search
+            workspace.stats().finish(this, 0, 0, 0);
             return;
-        visited[v] = true;
-        backtrace[v] = s;
+        }
+
+        visited[start] = stamp;
+        backtrace[start] = -1;
+
+        // Node of every stack frame and how many of its neighbours have been looked at
+        int[] stack = workspace.stack;
+        int[] cursor = workspace.cursor;
+        int[] neighbors = workspace.neighbors(graph.maxDegree());
+
+        // Nothing to search if the start is the target
+        int top = start == end ? -1 : 0;
+        stack[0] = start;
+        cursor[0] = 0;
+
+        // Node whose neighbours are currently in the buffer
+        int loaded = -1;
+        int count = 0;
+
+        int expanded = 1;
+        int relaxed = 0;
+        int peak = 1;
+
+        while (top >= 0) {
+            int v = stack[top];
+            if (v != loaded) {
+                count = graph.neighbors(v, neighbors);
+                loaded = v;
+            }
+
+            if (cursor[top] == count) {
+                top--;
+                continue;
+            }
+
+            int neigh = neighbors[cursor[top]++];
+            relaxed++;
+            if (visited[neigh] == stamp)
+                continue;
+
+            visited[neigh] = stamp;
+            backtrace[neigh] = v;
+            if (neigh == end)
+                break;
 
-        for (int neigh : graph.getNeighborsList(v)){
-            dfs(v, neigh);
+            if (++top == stack.length) {
+                stack = workspace.stack = Arrays.copyOf(stack, top << 1);
+                cursor = workspace.cursor = Arrays.copyOf(cursor, top << 1);
+            }
+            stack[top] = neigh;
+            cursor[top] = 0;
+            expanded++;
+            if (top >= peak)
+                peak = top + 1;
         }
+        workspace.stats().finish(this, expanded, relaxed, peak);
     }
 
 
@@ -0,0 +1,123 @@
+package core.path;
+
+import core.graph.Graph;
+
+/**
+ * Dial's algorithm: Dijkstra on the graph's terrain costs with a {@link BucketQueue} in place of a heap. Edge costs
+ * are small integers, at most {@link Graph#maxEdgeCost()}, so every queued distance lies within one bucket ring of
+ * the last one settled and the queue works in O(1) per operation. A search takes O(V + E + D) time for a largest
+ * distance D, against O((V + E) log V) for a heap.
+ * <p>
+ * Costs are in the units of {@link Graph#STRAIGHT_COST}: a path over cells of cost 1 costs 10 per straight move
+ * and 14 per diagonal one. Distances are kept as {@code long}, since on a large map of expensive terrain they can
+ * pass the int range.
+ */
+public class Dial implements PathFindingAlgorithm {
+
+    private final SearchWorkspace workspace;
+
+    private Graph g;
+    // distance/prev of a node are valid when seen[node] == stamp, it is settled when visited[node] == stamp
+    private long[] distance;
+    private int[] prev;
+    private int[] seen;
+    private int[] visited;
+    private int stamp;
+
+    public Dial() {
+        this(new SearchWorkspace());
+    }
+
+    public Dial(SearchWorkspace workspace) {
+        this.workspace = workspace;
+    }
+
+    @Override
+    public void solve(Graph g, int start) {
+        this.g = g;
+        dial(start, -1);
+    }
+
+    /**
+     * Same as {@link #solve(Graph, int)}, but stops as soon as {@code end} is settled.
+     * Only {@code end} and the nodes settled before it can be checked afterwards.
+     */
+    @Override
+    public SearchResult solve(Graph g, int start, int end) {
+        this.g = g;
+        dial(start, end);
+        return SearchResult.of(this, start, end);
+    }
+
+    private void dial(int start, int end){
+        workspace.begin(g.getSize());
+        stamp = workspace.stamp;
+        distance = workspace.labels();
+        prev = workspace.prev();
+        seen = workspace.seen();
+        visited = workspace.closed();
+        int[] neighbors = workspace.neighbors(g.maxDegree());
+        int[] costs = workspace.costs(g.maxDegree());
+        // Queued distances are never more than one edge past the last one settled
+        BucketQueue queue = workspace.buckets(g.maxEdgeCost() + 1);
+        if (end >= 0 && !g.sameComponent(start, end)) {
+            // Separate regions, there is nothing to search
+            workspace.stats().finish(this, 0, 0, 0);
+            return;
+        }
+
+        distance[start] = 0;
+        seen[start] = stamp;
+        queue.push(start, 0);
+        int expanded = 0;
+        int relaxed = 0;
+
+        while (!queue.isEmpty()){
+            int current = queue.poll();
+            visited[current] = stamp;
+            expanded++;
+            if (current == end)
+                break;
+
+            int count = g.neighbors(current, neighbors, costs);
+            relaxed += count;
+            for (int i = 0; i < count; i++){
+                int neigh = neighbors[i];
+                if (visited[neigh] == stamp)
+                    continue;
+
+                long temp = distance[current] + costs[i];
+                if (seen[neigh] != stamp || temp < distance[neigh]) {
+                    seen[neigh] = stamp;
+                    distance[neigh] = temp;
+                    prev[neigh] = current;
+                    queue.push(neigh, temp);
+                }
+            }
+        }
+        workspace.stats().finish(this, expanded, relaxed, queue.peakSize());
+    }
+
+    /**
+     * @throws ArithmeticException if the cost doesn't fit in an int
+     */
+    @Override
+    public int getCost(int start, int end) {
+        return Math.toIntExact(distance[end]);
+    }
+
+    @Override
+    public SearchStats getStats() {
+        return workspace.stats();
+    }
+
+    @Override
+    public boolean checkPath(int end) {
+        return visited[end] == stamp;
+    }
+
+    @Override
+    public int[] getPath(int start, int end) {
+        return Backtrace.follow(prev, start, end);
+    }
+}
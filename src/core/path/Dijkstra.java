@@ -1,85 +1,126 @@
 package core.path;
 
+import core.graph.EdgeCost;
 import core.graph.Graph;
 
-import java.util.*;
-
 public class Dijkstra implements PathFindingAlgorithm{
 
+    private final EdgeCost cost;
+    private final SearchWorkspace workspace;
+
     private Graph g;
-    private int[] distance;
+    // distance/prev of a node are valid when seen[node] == stamp, it is settled when visited[node] == stamp
+    private long[] distance;
     private int[] prev;
-    private boolean[] visited;
+    private int[] seen;
+    private int[] visited;
+    private int stamp;
+
+    public Dijkstra() {
+        this(new SearchWorkspace());
+    }
 
-    private int INF;
+    public Dijkstra(SearchWorkspace workspace) {
+        this(EdgeCost.UNIT, workspace);
+    }
+
+    /**
+     * Dijkstra on the given edge costs, which must not be negative.
+     */
+    public Dijkstra(EdgeCost cost) {
+        this(cost, new SearchWorkspace());
+    }
+
+    public Dijkstra(EdgeCost cost, SearchWorkspace workspace) {
+        this.cost = cost;
+        this.workspace = workspace;
+    }
 
     @Override
     public void solve(Graph g, int start) {
         this.g = g;
-        dijkstra(start);
+        dijkstra(start, -1);
     }
 
-    private void dijkstra(int start){
-        int size = g.getSize();
-        INF = size + 1;
-        distance = new int[size];
-        prev = new int[size];
-        visited = new boolean[size];
-
-        // This is needed to distinguish
-        Arrays.fill(distance, -1);
-        List<Integer> vertices = g.getVertexList();
-        for (int v : vertices) {
-            distance[v] = INF;
-            prev[v] = -1;
+    /**
+     * Same as {@link #solve(Graph, int)}, but stops as soon as {@code end} is settled.
+     * Only {@code end} and the nodes settled before it can be checked afterwards.
+     */
+    @Override
+    public SearchResult solve(Graph g, int start, int end) {
+        this.g = g;
+        dijkstra(start, end);
+        return SearchResult.of(this, start, end);
+    }
+
+    private void dijkstra(int start, int end){
+        workspace.begin(g.getSize());
+        stamp = workspace.stamp;
+        distance = workspace.labels();
+        prev = workspace.prev();
+        seen = workspace.seen();
+        visited = workspace.closed();
+        int[] neighbors = workspace.neighbors(g.maxDegree());
+        IndexedMinHeap queue = workspace.heap();
+        if (end >= 0 && !g.sameComponent(start, end)) {
+            // Separate regions, there is nothing to search
+            workspace.stats().finish(this, 0, 0, 0);
+            return;
         }
 
         distance[start] = 0;
+        seen[start] = stamp;
+        queue.push(start, 0);
+        int expanded = 0;
+        int relaxed = 0;
+
+        while (!queue.isEmpty()){
+            int current = queue.poll();
+            visited[current] = stamp;
+            expanded++;
+            if (current == end)
+                break;
 
-        int current = getMinDistanceNode();
-        // Current can be -1, distance array contains all possible nodes of the grid specification.
-        // A better solution would be to implement this functionality with Maps instead of array indexing.
-        // This works for a func project
-        while (current != -1){
-            visited[current] = true;
-            for (int neigh : g.getNeighborsList(current)){
-                int temp = distance[current] + 1;
-                if (temp < distance[neigh]) {
+            int count = g.neighbors(current, neighbors);
+            relaxed += count;
+            for (int i = 0; i < count; i++){
+                int neigh = neighbors[i];
+                if (visited[neigh] == stamp)
+                    continue;
+
+                // Terrain costs on a large map can add up past the int range
+                long temp = distance[current] + cost.cost(current, neigh);
+                if (seen[neigh] != stamp || temp < distance[neigh]) {
+                    seen[neigh] = stamp;
                     distance[neigh] = temp;
                     prev[neigh] = current;
+                    queue.push(neigh, temp);
                 }
             }
-            current = getMinDistanceNode();
         }
+        workspace.stats().finish(this, expanded, relaxed, queue.peakSize());
+    }
 
+    /**
+     * @throws ArithmeticException if the cost doesn't fit in an int
+     */
+    @Override
+    public int getCost(int start, int end) {
+        return Math.toIntExact(distance[end]);
     }
 
-    private int getMinDistanceNode(){
-        int min = INF;
-        int minNode = -1;
-        for (int i = 0; i < distance.length; i++) {
-            if (!visited[i] && distance[i] < min && distance[i] >= 0) {
-                min = distance[i];
-                minNode = i;
-            }
-        }
-        return minNode;
+    @Override
+    public SearchStats getStats() {
+        return workspace.stats();
     }
 
     @Override
     public boolean checkPath(int end) {
-        return visited[end];
+        return visited[end] == stamp;
     }
 
     @Override
-    public List<Integer> getBacktrace(int start, int end) {
-        List<Integer> ret = new ArrayList<>();
-        int cur = prev[end];
-        while (cur != start){
-            ret.add(cur);
-            cur = prev[cur];
-        }
-        Collections.reverse(ret);
-        return ret;
+    public int[] getPath(int start, int end) {
+        return Backtrace.follow(prev, start, end);
     }
 }
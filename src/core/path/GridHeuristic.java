@@ -0,0 +1,25 @@
+package core.path;
+
+/**
+ * Distance estimates and open list keys shared by the grid searches.
+ */
+final class GridHeuristic {
+
+    private GridHeuristic() { }
+
+    /**
+     * Manhattan distance for 4-way moves, Chebyshev distance for 8-way moves where a diagonal step costs 1.
+     */
+    static int distance(int dx, int dy, boolean diagonal){
+        dx = Math.abs(dx);
+        dy = Math.abs(dy);
+        return diagonal ? Math.max(dx, dy) : dx + dy;
+    }
+
+    /**
+     * Orders by f = g + h first, then by larger g.
+     */
+    static long key(int dist, int h){
+        return ((long) (dist + h) << 32) - dist;
+    }
+}
@@ -0,0 +1,716 @@
+package core.path;
+
+import core.graph.Graph;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Hierarchical path finding (HPA*, Botea, Mueller and Schaeffer) for large grids. The grid is cut into square
+ * clusters. Cells on either side of a cluster border that a move can cross become abstract nodes, and the distances
+ * between the abstract nodes of a cluster are found by searches that stay inside the cluster. A query connects
+ * start and end to the nodes of their clusters, searches the small abstract graph with A* and only walks the grid
+ * again for the segments of the path that are asked for.
+ * <p>
+ * Every crossing of a border is connected through some abstract node, so a path is found whenever one exists, but
+ * only one or two nodes are kept per stretch of open border and paths are not always the shortest. The cost
+ * returned is the exact cost of the path returned.
+ * <p>
+ * The abstraction is built on the first query on a graph, one cluster per task in parallel, and kept for later
+ * queries on the same graph. Cells changed in the graph are reported through {@link #cellChanged(int, int)}, and
+ * only the clusters next to a changed cell are rebuilt. If the graph's version moved on by more than the changes
+ * reported, everything is rebuilt.
+ * <p>
+ * A whole single source tree has no use for the abstraction, {@link #solve(Graph, int)} runs a flat breadth first
+ * search on the graph itself.
+ */
+public class HPAStar implements PathFindingAlgorithm {
+
+    public static final int DEFAULT_CLUSTER_SIZE = 16;
+    // Open stretches of border at least this wide get a node at both ends instead of one in the middle
+    private static final int MAX_ENTRANCE_WIDTH = 6;
+    private static final int INF = Integer.MAX_VALUE;
+    private static final int[] EMPTY = new int[0];
+    private static final int[] DX_STRAIGHT = {0, -1, 1, 0};
+    private static final int[] DY_STRAIGHT = {-1, 0, 0, 1};
+    private static final int[] DX_DIAGONAL = {-1, 0, 1, -1, 1, -1, 0, 1};
+    private static final int[] DY_DIAGONAL = {-1, -1, -1, 0, 0, 1, 1, 1};
+
+    private final SearchWorkspace workspace;
+    private final int clusterSize;
+    // Whole-tree queries, on the same workspace
+    private final BFS flat;
+    // Whether the last query was a whole tree from flat rather than a plan
+    private boolean tree;
+
+    private Graph g;
+    private int width;
+    private int height;
+    private boolean diagonal;
+    private int[] moveX = DX_STRAIGHT;
+    private int[] moveY = DY_STRAIGHT;
+    // Graph version the clusters are in step with
+    private long version;
+    private int clustersX;
+    private Cluster[] clusters = new Cluster[0];
+    private boolean[] dirty = new boolean[0];
+    private boolean anyDirty;
+
+    // Abstract node ids: the nodes of cluster c are c.base .. c.base + c.nodes.length - 1, followed by start and end
+    private int total;
+    private int[] owner = EMPTY;
+
+    // Distances inside the start and end clusters, indexed by cell inside the cluster
+    private int[] startDist = EMPTY;
+    private int[] endDist = EMPTY;
+    private int[] queue = EMPTY;
+    private boolean[] passable = new boolean[0];
+
+    // Abstract search state, an id's dist/prev are valid when seen[id] == stamp, it is closed when closed[id] == stamp
+    private int[] dist;
+    private int[] prev;
+    private int[] seen;
+    private int[] closed;
+    private int stamp;
+    private IndexedMinHeap open;
+
+    // Result of the last plan
+    private int start = -1;
+    private int end = -1;
+    private int cost = -1;
+    private int[] waypoints = EMPTY;
+    private long planVersion;
+
+    public HPAStar() {
+        this(new SearchWorkspace(), DEFAULT_CLUSTER_SIZE);
+    }
+
+    public HPAStar(int clusterSize) {
+        this(new SearchWorkspace(), clusterSize);
+    }
+
+    public HPAStar(SearchWorkspace workspace, int clusterSize) {
+        if (clusterSize <= 0)
+            throw new IllegalArgumentException("Cluster size must be positive: " + clusterSize);
+        this.workspace = workspace;
+        this.clusterSize = clusterSize;
+        this.flat = new BFS(workspace);
+    }
+
+    /**
+     * Computes the whole tree with a flat search on {@code g}, the abstraction is neither built nor used.
+     */
+    @Override
+    public void solve(Graph g, int start) {
+        tree = true;
+        flat.solve(g, start);
+    }
+
+    /**
+     * Plans the path and refines every segment of it.
+     */
+    @Override
+    public SearchResult solve(Graph g, int start, int end) {
+        plan(g, start, end);
+        return SearchResult.of(this, start, end);
+    }
+
+    /**
+     * Searches the abstract graph only. Afterwards {@link #getCost(int, int)} and {@link #getWaypoints()} are
+     * known, and the grid path of each segment can be had from {@link #refine(int)} when it is needed.
+     *
+     * @return whether {@code end} is reachable
+     */
+    public boolean plan(Graph g, int start, int end) {
+        prepare(g);
+        tree = false;
+        this.start = start;
+        this.end = end;
+        this.planVersion = g.getVersion();
+
+        int startId = total;
+        int endId = total + 1;
+        workspace.begin(total + 2);
+        stamp = workspace.stamp;
+        dist = workspace.dist();
+        prev = workspace.prev();
+        seen = workspace.seen();
+        closed = workspace.closed();
+        open = workspace.heap();
+        int expanded = 0;
+        int relaxed = 0;
+
+        cost = -1;
+        waypoints = EMPTY;
+        if (!isOpen(start) || !isOpen(end) || !g.sameComponent(start, end)) {
+            workspace.stats().finish(this, expanded, relaxed, 0);
+            return false;
+        }
+
+        Cluster startCluster = clusters[clusterOf(start)];
+        Cluster endCluster = clusters[clusterOf(end)];
+        expanded += clusterSearch(startCluster, start, startDist);
+        expanded += clusterSearch(endCluster, end, endDist);
+
+        dist[startId] = 0;
+        seen[startId] = stamp;
+        open.push(startId, GridHeuristic.key(0, heuristic(start)));
+
+        while (!open.isEmpty()) {
+            int current = open.poll();
+            closed[current] = stamp;
+            expanded++;
+            if (current == endId)
+                break;
+
+            Cluster c;
+            int from;
+            if (current == startId) {
+                c = startCluster;
+                from = -1;
+            } else {
+                c = clusters[owner[current]];
+                from = current - c.base;
+            }
+
+            // Moves inside the cluster
+            int n = c.nodes.length;
+            for (int j = 0; j < n; j++) {
+                int d = from < 0 ? startDist[c.local(c.nodes[j])] : c.dist[(from * n) + j];
+                if (j != from && d != INF) {
+                    relaxed++;
+                    relax(current, c.base + j, dist[current] + d, c.nodes[j]);
+                }
+            }
+            if (c == endCluster) {
+                int d = endDist[c.local(from < 0 ? start : c.nodes[from])];
+                if (d != INF) {
+                    relaxed++;
+                    relax(current, endId, dist[current] + d, end);
+                }
+            }
+
+            // Moves across the border
+            if (from >= 0) {
+                for (int link : c.links[from]) {
+                    Cluster other = clusters[clusterOf(link)];
+                    int j = other.indexOf(link);
+                    if (j >= 0) {
+                        relaxed++;
+                        relax(current, other.base + j, dist[current] + 1, link);
+                    }
+                }
+            }
+        }
+        workspace.stats().finish(this, expanded, relaxed, open.peakSize());
+
+        if (closed[endId] != stamp)
+            return false;
+        cost = dist[endId];
+        waypoints = backtrack(startId, endId);
+        return true;
+    }
+
+    private void relax(int from, int to, int d, int cell) {
+        if (closed[to] == stamp || (seen[to] == stamp && d >= dist[to]))
+            return;
+        seen[to] = stamp;
+        dist[to] = d;
+        prev[to] = from;
+        open.push(to, GridHeuristic.key(d, heuristic(cell)));
+    }
+
+    /**
+     * Cells of the abstract path from start to end, with the steps that don't move left out.
+     */
+    private int[] backtrack(int startId, int endId) {
+        int count = 1;
+        for (int id = endId; id != startId; id = prev[id])
+            count++;
+
+        int[] ids = new int[count];
+        int id = endId;
+        for (int i = count - 1; i > 0; i--) {
+            ids[i] = id;
+            id = prev[id];
+        }
+        ids[0] = startId;
+
+        int[] cells = new int[count];
+        int length = 0;
+        for (int node : ids) {
+            int cell = node == startId ? start : node == endId ? end : cellOf(node);
+            if (length == 0 || cells[length - 1] != cell)
+                cells[length++] = cell;
+        }
+        return Arrays.copyOf(cells, length);
+    }
+
+    /**
+     * Tells the planner that the cell at (x, y) was blocked or opened in the graph of the last search, which
+     * accounts for one step of the graph's version. The clusters it touches are rebuilt before the next query.
+     * Ignored if there was no search yet.
+     */
+    public void cellChanged(int x, int y) {
+        if (g == null)
+            return;
+
+        version++;
+        // The cell's own cluster, and any cluster whose border crossings the cell takes part in
+        for (int dy = -1; dy <= 1; dy++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                int nx = x + dx;
+                int ny = y + dy;
+                if (nx >= 0 && nx < width && ny >= 0 && ny < height) {
+                    dirty[((ny / clusterSize) * clustersX) + (nx / clusterSize)] = true;
+                    anyDirty = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets the abstraction, for example when the grid it was built for is replaced.
+     */
+    public void reset() {
+        g = null;
+        start = -1;
+        end = -1;
+        cost = -1;
+        waypoints = EMPTY;
+    }
+
+    public int getClusterSize() {
+        return clusterSize;
+    }
+
+    /**
+     * Number of nodes in the abstract graph.
+     */
+    public int getAbstractNodeCount() {
+        return total;
+    }
+
+    /**
+     * Cells the last plan passes through, start and end included. Consecutive waypoints are either in the same
+     * cluster or one move apart.
+     */
+    public int[] getWaypoints() {
+        return waypoints.clone();
+    }
+
+    /**
+     * Grid path from waypoint {@code segment} to waypoint {@code segment + 1}, both included. The graph must not
+     * have changed since the plan.
+     */
+    public int[] refine(int segment) {
+        if (g.getVersion() != planVersion)
+            throw new IllegalStateException("Graph changed since the path was planned");
+
+        int from = waypoints[segment];
+        int to = waypoints[segment + 1];
+        if (clusterOf(from) != clusterOf(to))
+            return new int[]{from, to};
+
+        // Search back from the target, then walk down the distances from the source
+        Cluster c = clusters[clusterOf(from)];
+        int[] local = new int[c.area()];
+        clusterSearch(c, to, local);
+        int columns = c.x1 - c.x0;
+        int rows = c.y1 - c.y0;
+        int current = c.local(from);
+        int d = local[current];
+        int[] path = new int[d + 1];
+        path[0] = from;
+        for (int i = 1; i <= d; i++) {
+            int x = current % columns;
+            int y = current / columns;
+            for (int k = 0; k < moveX.length; k++) {
+                int nx = x + moveX[k];
+                int ny = y + moveY[k];
+                if (nx >= 0 && nx < columns && ny >= 0 && ny < rows && local[(ny * columns) + nx] == d - i) {
+                    current = (ny * columns) + nx;
+                    break;
+                }
+            }
+            path[i] = cell(c.x0 + (current % columns), c.y0 + (current / columns));
+        }
+        return path;
+    }
+
+    @Override
+    public SearchStats getStats() {
+        return workspace.stats();
+    }
+
+    @Override
+    public boolean checkPath(int end) {
+        if (tree)
+            return flat.checkPath(end);
+        return end == this.end && cost >= 0;
+    }
+
+    @Override
+    public int getCost(int start, int end) {
+        if (tree)
+            return flat.getCost(start, end);
+        return cost;
+    }
+
+    /**
+     * Refines every segment of the abstract path and joins them.
+     */
+    @Override
+    public int[] getPath(int start, int end) {
+        if (tree)
+            return flat.getPath(start, end);
+        int[] path = new int[cost + 1];
+        path[0] = start;
+        int length = 1;
+        for (int s = 0; s < waypoints.length - 1; s++) {
+            int[] segment = refine(s);
+            // Each segment starts where the last one ended
+            System.arraycopy(segment, 1, path, length, segment.length - 1);
+            length += segment.length - 1;
+        }
+        return path;
+    }
+
+    /**
+     * Builds the abstraction for {@code g} if it is a new graph, or rebuilds the clusters marked dirty.
+     */
+    private void prepare(Graph g) {
+        if (g != this.g || g.getWidth() != width || g.getHeight() != height || g.isDiagonal() != diagonal
+                || g.getVersion() != version) {
+            this.g = g;
+            this.width = g.getWidth();
+            this.height = g.getHeight();
+            this.diagonal = g.isDiagonal();
+            this.version = g.getVersion();
+            moveX = diagonal ? DX_DIAGONAL : DX_STRAIGHT;
+            moveY = diagonal ? DY_DIAGONAL : DY_STRAIGHT;
+
+            clustersX = (width + clusterSize - 1) / clusterSize;
+            int clustersY = (height + clusterSize - 1) / clusterSize;
+            clusters = new Cluster[clustersX * clustersY];
+            for (int cy = 0; cy < clustersY; cy++) {
+                for (int cx = 0; cx < clustersX; cx++) {
+                    clusters[(cy * clustersX) + cx] = new Cluster(cx * clusterSize, cy * clusterSize,
+                            Math.min(width, (cx + 1) * clusterSize), Math.min(height, (cy + 1) * clusterSize), width);
+                }
+            }
+            dirty = new boolean[clusters.length];
+            Arrays.fill(dirty, true);
+            anyDirty = true;
+
+            int area = clusterSize * clusterSize;
+            startDist = new int[area];
+            endDist = new int[area];
+            queue = new int[area];
+            passable = new boolean[area];
+        }
+        if (!anyDirty)
+            return;
+
+        // Clusters only read the grid and write their own nodes, so they can be built side by side
+        IntStream.range(0, clusters.length).parallel()
+                .filter(c -> dirty[c])
+                .forEach(c -> build(clusters[c]));
+        Arrays.fill(dirty, false);
+        anyDirty = false;
+
+        total = 0;
+        for (Cluster c : clusters) {
+            c.base = total;
+            total += c.nodes.length;
+        }
+        if (owner.length < total)
+            owner = new int[total];
+        for (int i = 0; i < clusters.length; i++)
+            Arrays.fill(owner, clusters[i].base, clusters[i].base + clusters[i].nodes.length, i);
+    }
+
+    /**
+     * Finds the nodes of {@code c} with their moves into other clusters, and the distances between the nodes.
+     */
+    private void build(Cluster c) {
+        Crossings crossings = new Crossings();
+        int cx = c.x0 / clusterSize;
+        int cy = c.y0 / clusterSize;
+        boolean left = cx > 0;
+        boolean right = c.x1 < width;
+        boolean top = cy > 0;
+        boolean bottom = c.y1 < height;
+
+        // Borders are always scanned from the top or left cluster, so both sides find the same crossings
+        if (left)
+            border(crossings, c.x0 - 1, c.y0, 0, 1, 1, 0, c.y1 - c.y0, false);
+        if (right)
+            border(crossings, c.x1 - 1, c.y0, 0, 1, 1, 0, c.y1 - c.y0, true);
+        if (top)
+            border(crossings, c.x0, c.y0 - 1, 1, 0, 0, 1, c.x1 - c.x0, false);
+        if (bottom)
+            border(crossings, c.x0, c.y1 - 1, 1, 0, 0, 1, c.x1 - c.x0, true);
+        if (diagonal) {
+            if (top && left)
+                corner(crossings, c.x0 - 1, c.y0 - 1, c.x0, c.y0, false);
+            if (top && right)
+                corner(crossings, c.x1, c.y0 - 1, c.x1 - 1, c.y0, false);
+            if (bottom && left)
+                corner(crossings, c.x0, c.y1 - 1, c.x0 - 1, c.y1, true);
+            if (bottom && right)
+                corner(crossings, c.x1 - 1, c.y1 - 1, c.x1, c.y1, true);
+        }
+        crossings.group(c);
+
+        int n = c.nodes.length;
+        c.dist = new int[n * n];
+        boolean[] open = new boolean[c.area()];
+        int[] local = new int[c.area()];
+        int[] scratch = new int[c.area()];
+        passability(c, open);
+        for (int i = 0; i < n; i++) {
+            clusterSearch(c, c.nodes[i], open, local, scratch);
+            for (int j = 0; j < n; j++)
+                c.dist[(i * n) + j] = local[c.local(c.nodes[j])];
+        }
+    }
+
+    /**
+     * Crossings of the border between the cells (ax + i * stepX, ay + i * stepY) on the top or left side and the
+     * cells one (acrossX, acrossY) further on, for i below {@code length}. Every open stretch of straight crossings
+     * gets a node in its middle, or one at each end if it is wide. With diagonal moves, a diagonal crossing next to
+     * no straight one gets a node of its own, others can be made through a neighbouring straight crossing.
+     */
+    private void border(Crossings out, int ax, int ay, int stepX, int stepY, int acrossX, int acrossY, int length,
+                        boolean topLeft) {
+        int run = 0;
+        for (int i = 0; i <= length; i++) {
+            boolean open = i < length && straight(ax, ay, stepX, stepY, acrossX, acrossY, i);
+            if (open) {
+                run++;
+                continue;
+            }
+            if (run > 0) {
+                int first = i - run;
+                int last = i - 1;
+                if (run < MAX_ENTRANCE_WIDTH) {
+                    crossing(out, ax, ay, stepX, stepY, acrossX, acrossY, (first + last) / 2, 0, topLeft);
+                } else {
+                    crossing(out, ax, ay, stepX, stepY, acrossX, acrossY, first, 0, topLeft);
+                    crossing(out, ax, ay, stepX, stepY, acrossX, acrossY, last, 0, topLeft);
+                }
+            }
+            run = 0;
+        }
+
+        if (!diagonal)
+            return;
+        for (int i = 0; i < length - 1; i++) {
+            if (straight(ax, ay, stepX, stepY, acrossX, acrossY, i)
+                    || straight(ax, ay, stepX, stepY, acrossX, acrossY, i + 1))
+                continue;
+            int x = ax + (i * stepX);
+            int y = ay + (i * stepY);
+            if (isOpen(x, y) && isOpen(x + stepX + acrossX, y + stepY + acrossY))
+                crossing(out, ax, ay, stepX, stepY, acrossX, acrossY, i, 1, topLeft);
+            if (isOpen(x + stepX, y + stepY) && isOpen(x + acrossX, y + acrossY))
+                crossing(out, ax, ay, stepX, stepY, acrossX, acrossY, i + 1, -1, topLeft);
+        }
+    }
+
+    private boolean straight(int ax, int ay, int stepX, int stepY, int acrossX, int acrossY, int i) {
+        int x = ax + (i * stepX);
+        int y = ay + (i * stepY);
+        return isOpen(x, y) && isOpen(x + acrossX, y + acrossY);
+    }
+
+    /**
+     * Records the crossing from cell {@code i} on the top or left side to cell {@code i + shift} on the other.
+     */
+    private void crossing(Crossings out, int ax, int ay, int stepX, int stepY, int acrossX, int acrossY, int i,
+                          int shift, boolean topLeft) {
+        int a = cell(ax + (i * stepX), ay + (i * stepY));
+        int b = cell(ax + ((i + shift) * stepX) + acrossX, ay + ((i + shift) * stepY) + acrossY);
+        if (topLeft)
+            out.add(a, b);
+        else
+            out.add(b, a);
+    }
+
+    /**
+     * Diagonal crossing between the corner cells (ax, ay) of the upper cluster and (bx, by) of the lower one. It
+     * only needs a node if neither cell it cuts past is open.
+     */
+    private void corner(Crossings out, int ax, int ay, int bx, int by, boolean upper) {
+        if (!isOpen(ax, ay) || !isOpen(bx, by) || isOpen(bx, ay) || isOpen(ax, by))
+            return;
+        if (upper)
+            out.add(cell(ax, ay), cell(bx, by));
+        else
+            out.add(cell(bx, by), cell(ax, ay));
+    }
+
+    private int clusterSearch(Cluster c, int from, int[] local) {
+        passability(c, passable);
+        return clusterSearch(c, from, passable, local, queue);
+    }
+
+    /**
+     * Copies the passability of the cells of {@code c} into {@code open}, indexed like the cluster's local arrays.
+     */
+    private void passability(Cluster c, boolean[] open) {
+        int i = 0;
+        for (int y = c.y0; y < c.y1; y++)
+            for (int x = c.x0; x < c.x1; x++)
+                open[i++] = g.isOpen(x, y);
+    }
+
+    /**
+     * Breadth first search from the open cell {@code from} that doesn't leave {@code c}. Works in the cluster's own
+     * coordinates, so a step doesn't need the divisions of a grid node. Writes the distance of every cell
+     * of the cluster into {@code local}, {@link #INF} for cells it can't reach, and returns the number of cells
+     * expanded.
+     */
+    private int clusterSearch(Cluster c, int from, boolean[] open, int[] local, int[] queue) {
+        int columns = c.x1 - c.x0;
+        int rows = c.y1 - c.y0;
+        Arrays.fill(local, 0, columns * rows, INF);
+        int head = 0;
+        int tail = 0;
+        local[c.local(from)] = 0;
+        queue[tail++] = c.local(from);
+        while (head < tail) {
+            int current = queue[head++];
+            int x = current % columns;
+            int y = current / columns;
+            int d = local[current] + 1;
+            for (int k = 0; k < moveX.length; k++) {
+                int nx = x + moveX[k];
+                int ny = y + moveY[k];
+                if (nx < 0 || nx >= columns || ny < 0 || ny >= rows)
+                    continue;
+                int next = (ny * columns) + nx;
+                if (open[next] && local[next] == INF) {
+                    local[next] = d;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return tail;
+    }
+
+    private int heuristic(int cell) {
+        return GridHeuristic.distance((cell % width) - (end % width), (cell / width) - (end / width), diagonal);
+    }
+
+    private int cellOf(int id) {
+        Cluster c = clusters[owner[id]];
+        return c.nodes[id - c.base];
+    }
+
+    private int clusterOf(int cell) {
+        return (((cell / width) / clusterSize) * clustersX) + ((cell % width) / clusterSize);
+    }
+
+    private int cell(int x, int y) {
+        return (y * width) + x;
+    }
+
+    private boolean isOpen(int x, int y) {
+        return g.isOpen(x, y);
+    }
+
+    private boolean isOpen(int cell) {
+        return g.isOpen(cell % width, cell / width);
+    }
+
+    /**
+     * Rectangle of cells with its abstract nodes. Nodes are border cells, ascending.
+     */
+    private static final class Cluster {
+
+        final int x0;
+        final int y0;
+        final int x1;
+        final int y1;
+        // Width of the grid
+        final int width;
+
+        int[] nodes = EMPTY;
+        // Cells in other clusters each node has a move to
+        int[][] links;
+        // Distances between nodes inside the cluster, dist[i * n + j], INF if not connected inside
+        int[] dist;
+        int base;
+
+        Cluster(int x0, int y0, int x1, int y1, int width) {
+            this.x0 = x0;
+            this.y0 = y0;
+            this.x1 = x1;
+            this.y1 = y1;
+            this.width = width;
+        }
+
+        int area() {
+            return (x1 - x0) * (y1 - y0);
+        }
+
+        /**
+         * Index of a cell of the cluster in arrays covering the cluster.
+         */
+        int local(int cell) {
+            return (((cell / width) - y0) * (x1 - x0)) + ((cell % width) - x0);
+        }
+
+        int indexOf(int cell) {
+            int i = Arrays.binarySearch(nodes, cell);
+            return i >= 0 ? i : -1;
+        }
+    }
+
+    /**
+     * Crossings found while building a cluster, packed as (own cell, other cell) pairs.
+     */
+    private static final class Crossings {
+
+        private long[] pairs = new long[16];
+        private int count;
+
+        void add(int own, int other) {
+            if (count == pairs.length)
+                pairs = Arrays.copyOf(pairs, count * 2);
+            pairs[count++] = ((long) own << 32) | other;
+        }
+
+        /**
+         * Turns the crossings into the cluster's nodes, one per own cell, and their links.
+         */
+        void group(Cluster c) {
+            Arrays.sort(pairs, 0, count);
+            int distinct = 0;
+            for (int i = 0; i < count; i++)
+                if (i == 0 || (pairs[i] >>> 32) != (pairs[i - 1] >>> 32))
+                    distinct++;
+
+            int[] nodes = new int[distinct];
+            int[][] links = new int[distinct][];
+            int node = -1;
+            for (int i = 0, first = 0; i < count; i++) {
+                if (i == 0 || (pairs[i] >>> 32) != (pairs[i - 1] >>> 32)) {
+                    node++;
+                    nodes[node] = (int) (pairs[i] >>> 32);
+                    first = i;
+                }
+                if (i == count - 1 || (pairs[i + 1] >>> 32) != (pairs[i] >>> 32)) {
+                    links[node] = new int[i - first + 1];
+                    for (int k = first; k <= i; k++)
+                        links[node][k - first] = (int) pairs[k];
+                }
+            }
+            c.nodes = nodes;
+            c.links = links;
+        }
+    }
+
+}
@@ -0,0 +1,24 @@
+package core.path;
+
+import core.graph.Graph;
+
+/**
+ * Lower bound on the cost of the rest of a path, for the A*-style searches. An estimate must never be above the
+ * real cost, or the searches lose their optimality, and should be consistent (never drop by more than the cost of
+ * a move) for searches that close nodes.
+ */
+@FunctionalInterface
+public interface Heuristic {
+
+    /**
+     * Manhattan distance for 4-way moves, Chebyshev distance for 8-way moves where a diagonal step costs 1.
+     */
+    Heuristic GRID = (g, node, goal) -> GridHeuristic.distance((node % g.getWidth()) - (goal % g.getWidth()),
+            (node / g.getWidth()) - (goal / g.getWidth()), g.isDiagonal());
+
+    /**
+     * Estimated cost from {@code node} to {@code goal} on {@code g}.
+     */
+    int estimate(Graph g, int node, int goal);
+
+}
@@ -0,0 +1,165 @@
+package core.path;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of node ids with {@code long} keys and decrease-key, backed by primitive arrays.
+ * Each node can be in the heap at most once.
+ */
+final class IndexedMinHeap {
+
+    private int[] heap;
+    private long[] keys;
+    // Position of a node inside the heap, -1 if it isn't queued
+    private int[] pos;
+    private int size;
+    // Largest size since the last clear
+    private int peak;
+
+    IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        keys = new long[capacity];
+        pos = new int[capacity];
+        Arrays.fill(pos, -1);
+    }
+
+    /**
+     * Makes room for node ids up to {@code capacity - 1}, keeping the current content.
+     */
+    void ensureCapacity(int capacity) {
+        if (capacity <= pos.length)
+            return;
+        int old = pos.length;
+        heap = Arrays.copyOf(heap, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        pos = Arrays.copyOf(pos, capacity);
+        Arrays.fill(pos, old, capacity, -1);
+    }
+
+    /**
+     * Empties the heap in time proportional to its size.
+     */
+    void clear() {
+        for (int i = 0; i < size; i++)
+            pos[heap[i]] = -1;
+        size = 0;
+        peak = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int peakSize() {
+        return peak;
+    }
+
+    boolean contains(int node) {
+        return pos[node] != -1;
+    }
+
+    long keyOf(int node) {
+        return keys[pos[node]];
+    }
+
+    long peekKey() {
+        return keys[0];
+    }
+
+    /**
+     * Inserts {@code node}, or lowers its key if it is already queued with a larger one.
+     */
+    void push(int node, long key) {
+        int i = pos[node];
+        if (i == -1) {
+            i = size++;
+            if (size > peak)
+                peak = size;
+            heap[i] = node;
+            keys[i] = key;
+            pos[node] = i;
+            siftUp(i);
+        } else if (key < keys[i]) {
+            keys[i] = key;
+            siftUp(i);
+        }
+    }
+
+    /**
+     * Removes and returns the node with the smallest key.
+     */
+    int poll() {
+        int top = heap[0];
+        pos[top] = -1;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            keys[0] = keys[size];
+            pos[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    /**
+     * Removes {@code node} from the heap if it is queued.
+     */
+    void remove(int node) {
+        int i = pos[node];
+        if (i == -1)
+            return;
+        pos[node] = -1;
+        size--;
+        if (i < size) {
+            heap[i] = heap[size];
+            keys[i] = keys[size];
+            pos[heap[i]] = i;
+            siftDown(i);
+            siftUp(pos[heap[i]]);
+        }
+    }
+
+    private void siftUp(int i) {
+        int node = heap[i];
+        long key = keys[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[parent] <= key)
+                break;
+            move(parent, i);
+            i = parent;
+        }
+        heap[i] = node;
+        keys[i] = key;
+        pos[node] = i;
+    }
+
+    private void siftDown(int i) {
+        int node = heap[i];
+        long key = keys[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = (i << 1) + 1;
+            int right = child + 1;
+            if (right < size && keys[right] < keys[child])
+                child = right;
+            if (key <= keys[child])
+                break;
+            move(child, i);
+            i = child;
+        }
+        heap[i] = node;
+        keys[i] = key;
+        pos[node] = i;
+    }
+
+    private void move(int from, int to) {
+        heap[to] = heap[from];
+        keys[to] = keys[from];
+        pos[heap[to]] = to;
+    }
+}
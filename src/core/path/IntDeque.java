@@ -0,0 +1,83 @@
+package core.path;
+
+import java.util.Arrays;
+
+/**
+ * Growable circular double-ended queue of primitive ints.
+ */
+final class IntDeque {
+
+    private int[] elements;
+    // Capacity is a power of two so indices wrap with a mask
+    private int mask;
+    private int head;
+    private int size;
+    // Largest size since the last clear
+    private int peak;
+
+    IntDeque(int capacity) {
+        int n = Integer.highestOneBit(Math.max(capacity, 8) - 1) << 1;
+        elements = new int[n];
+        mask = n - 1;
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+        peak = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int peakSize() {
+        return peak;
+    }
+
+    void addFirst(int value) {
+        if (size == elements.length)
+            grow();
+        head = (head - 1) & mask;
+        elements[head] = value;
+        if (++size > peak)
+            peak = size;
+    }
+
+    void addLast(int value) {
+        if (size == elements.length)
+            grow();
+        elements[(head + size) & mask] = value;
+        if (++size > peak)
+            peak = size;
+    }
+
+    int peekFirst() {
+        return elements[head];
+    }
+
+    int pollFirst() {
+        int value = elements[head];
+        head = (head + 1) & mask;
+        size--;
+        return value;
+    }
+
+    int pollLast() {
+        size--;
+        return elements[(head + size) & mask];
+    }
+
+    private void grow() {
+        int n = elements.length;
+        int[] grown = Arrays.copyOf(elements, n << 1);
+        // Unwrap the part that sat before head
+        System.arraycopy(elements, 0, grown, n, head);
+        elements = grown;
+        mask = grown.length - 1;
+    }
+}
@@ -0,0 +1,360 @@
+package core.path;
+
+import core.graph.Graph;
+
+/**
+ * Jump point search for uniform-cost grids. Works directly on the cell passability of the graph and only puts
+ * jump points on the open list. With diagonal moves it prunes neighbours like JPS on an 8-connected grid that
+ * allows corner cutting (the same moves {@link Graph} offers), otherwise it runs the 4-connected variant.
+ * The backtrace is expanded back to every cell on the way, like the other algorithms return it. The estimate of
+ * the remaining cost comes from a {@link Heuristic}, the grid distance unless another one is given.
+ */
+public class JumpPointSearch implements PathFindingAlgorithm {
+
+    private final Heuristic heuristic;
+    private final SearchWorkspace workspace;
+
+    private Graph g;
+    private int width;
+    private int height;
+    private int goal;
+
+    private int[] dist;
+    private int[] prev;
+    // A node's dist/prev are valid when seen[node] == stamp, it is closed when closed[node] == stamp
+    private int[] seen;
+    private int[] closed;
+    private int stamp;
+
+    // Directions of the successors of the node being expanded
+    private final int[] dirX = new int[8];
+    private final int[] dirY = new int[8];
+
+    public JumpPointSearch() {
+        this(Heuristic.GRID);
+    }
+
+    public JumpPointSearch(SearchWorkspace workspace) {
+        this(Heuristic.GRID, workspace);
+    }
+
+    public JumpPointSearch(Heuristic heuristic) {
+        this(heuristic, new SearchWorkspace());
+    }
+
+    public JumpPointSearch(Heuristic heuristic, SearchWorkspace workspace) {
+        this.heuristic = heuristic;
+        this.workspace = workspace;
+    }
+
+    /**
+     * Without a target there is nothing to jump towards, so the whole tree is grown by a plain uniform-cost
+     * expansion over the moves of {@code g}. Every move costs 1, so a breadth first pass settles the nodes in order,
+     * and afterwards every reached node can be checked.
+     */
+    @Override
+    public void solve(Graph g, int start) {
+        this.g = g;
+        this.width = g.getWidth();
+        this.height = g.getHeight();
+        this.goal = -1;
+
+        workspace.begin(g.getSize());
+        stamp = workspace.stamp;
+        dist = workspace.dist();
+        prev = workspace.prev();
+        seen = workspace.seen();
+        closed = workspace.closed();
+        int[] neighbors = workspace.neighbors(g.maxDegree());
+        IntDeque queue = workspace.deque();
+
+        dist[start] = 0;
+        prev[start] = start;
+        seen[start] = stamp;
+        closed[start] = stamp;
+        queue.addLast(start);
+        int expanded = 0;
+        int relaxed = 0;
+
+        while (!queue.isEmpty()) {
+            int current = queue.pollFirst();
+            expanded++;
+            int count = g.neighbors(current, neighbors);
+            relaxed += count;
+            for (int i = 0; i < count; i++) {
+                int neigh = neighbors[i];
+                if (closed[neigh] != stamp) {
+                    seen[neigh] = stamp;
+                    closed[neigh] = stamp;
+                    dist[neigh] = dist[current] + 1;
+                    prev[neigh] = current;
+                    queue.addLast(neigh);
+                }
+            }
+        }
+        workspace.stats().finish(this, expanded, relaxed, queue.peakSize());
+    }
+
+    /**
+     * Searches towards {@code end}. Only {@code end} can be checked afterwards.
+     */
+    @Override
+    public SearchResult solve(Graph g, int start, int end) {
+        this.g = g;
+        this.width = g.getWidth();
+        this.height = g.getHeight();
+        this.goal = end;
+        search(start);
+        return SearchResult.of(this, start, end);
+    }
+
+    private void search(int start){
+        boolean diagonal = g.isDiagonal();
+
+        workspace.begin(g.getSize());
+        stamp = workspace.stamp;
+        dist = workspace.dist();
+        prev = workspace.prev();
+        seen = workspace.seen();
+        closed = workspace.closed();
+        IndexedMinHeap open = workspace.heap();
+        if (!g.sameComponent(start, goal)) {
+            // Separate regions, there is nothing to search
+            workspace.stats().finish(this, 0, 0, 0);
+            return;
+        }
+
+        dist[start] = 0;
+        prev[start] = start;
+        seen[start] = stamp;
+        open.push(start, GridHeuristic.key(0, heuristic.estimate(g, start, goal)));
+
+        int expanded = 0;
+        int relaxed = 0;
+
+        while (!open.isEmpty()) {
+            int current = open.poll();
+            closed[current] = stamp;
+            expanded++;
+            if (current == goal)
+                break;
+
+            int x = current % width;
+            int y = current / width;
+            int count = diagonal ? successors8(current, x, y) : successors4(current, x, y);
+            relaxed += count;
+
+            for (int i = 0; i < count; i++) {
+                int jumpPoint = diagonal ? jump8(x, y, dirX[i], dirY[i]) : jump4(x, y, dirX[i], dirY[i]);
+                if (jumpPoint == -1 || closed[jumpPoint] == stamp)
+                    continue;
+
+                int jx = jumpPoint % width;
+                int jy = jumpPoint / width;
+                int temp = dist[current] + GridHeuristic.distance(jx - x, jy - y, diagonal);
+                if (seen[jumpPoint] != stamp || temp < dist[jumpPoint]) {
+                    seen[jumpPoint] = stamp;
+                    dist[jumpPoint] = temp;
+                    prev[jumpPoint] = current;
+                    open.push(jumpPoint, GridHeuristic.key(temp, heuristic.estimate(g, jumpPoint, goal)));
+                }
+            }
+        }
+        workspace.stats().finish(this, expanded, relaxed, open.peakSize());
+    }
+
+    private boolean walkable(int x, int y){
+        return x >= 0 && x < width && y >= 0 && y < height && g.isOpen(x, y);
+    }
+
+    private int addDirection(int count, int dx, int dy){
+        dirX[count] = dx;
+        dirY[count] = dy;
+        return count + 1;
+    }
+
+    /**
+     * Collects the natural and forced neighbour directions of a node on an 8-connected grid.
+     */
+    private int successors8(int node, int x, int y){
+        int count = 0;
+        int parent = prev[node];
+
+        if (parent == node) {
+            for (int dx = -1; dx <= 1; dx++)
+                for (int dy = -1; dy <= 1; dy++)
+                    if ((dx != 0 || dy != 0) && walkable(x + dx, y + dy))
+                        count = addDirection(count, dx, dy);
+            return count;
+        }
+
+        int dx = Integer.signum(x - (parent % width));
+        int dy = Integer.signum(y - (parent / width));
+
+        if (dx != 0 && dy != 0) {
+            if (walkable(x, y + dy))
+                count = addDirection(count, 0, dy);
+            if (walkable(x + dx, y))
+                count = addDirection(count, dx, 0);
+            if (walkable(x + dx, y + dy))
+                count = addDirection(count, dx, dy);
+            if (!walkable(x - dx, y) && walkable(x - dx, y + dy))
+                count = addDirection(count, -dx, dy);
+            if (!walkable(x, y - dy) && walkable(x + dx, y - dy))
+                count = addDirection(count, dx, -dy);
+        } else if (dx != 0) {
+            if (walkable(x + dx, y))
+                count = addDirection(count, dx, 0);
+            if (!walkable(x, y + 1) && walkable(x + dx, y + 1))
+                count = addDirection(count, dx, 1);
+            if (!walkable(x, y - 1) && walkable(x + dx, y - 1))
+                count = addDirection(count, dx, -1);
+        } else {
+            if (walkable(x, y + dy))
+                count = addDirection(count, 0, dy);
+            if (!walkable(x + 1, y) && walkable(x + 1, y + dy))
+                count = addDirection(count, 1, dy);
+            if (!walkable(x - 1, y) && walkable(x - 1, y + dy))
+                count = addDirection(count, -1, dy);
+        }
+        return count;
+    }
+
+    /**
+     * Moves from (x, y) in direction (dx, dy) until a jump point is found. Returns -1 if a wall or the border is hit first.
+     */
+    private int jump8(int x, int y, int dx, int dy){
+        while (true) {
+            x += dx;
+            y += dy;
+            if (!walkable(x, y))
+                return -1;
+
+            int node = (y * width) + x;
+            if (node == goal)
+                return node;
+
+            if (dx != 0 && dy != 0) {
+                if ((walkable(x - dx, y + dy) && !walkable(x - dx, y))
+                        || (walkable(x + dx, y - dy) && !walkable(x, y - dy)))
+                    return node;
+                // A diagonal step is a jump point if one of its straight continuations reaches one
+                if (jump8(x, y, dx, 0) != -1 || jump8(x, y, 0, dy) != -1)
+                    return node;
+            } else if (dx != 0) {
+                if ((walkable(x + dx, y + 1) && !walkable(x, y + 1))
+                        || (walkable(x + dx, y - 1) && !walkable(x, y - 1)))
+                    return node;
+            } else {
+                if ((walkable(x + 1, y + dy) && !walkable(x + 1, y))
+                        || (walkable(x - 1, y + dy) && !walkable(x - 1, y)))
+                    return node;
+            }
+        }
+    }
+
+    /**
+     * Collects the successor directions of a node on a 4-connected grid.
+     */
+    private int successors4(int node, int x, int y){
+        int count = 0;
+        int parent = prev[node];
+
+        if (parent == node) {
+            if (walkable(x, y - 1))
+                count = addDirection(count, 0, -1);
+            if (walkable(x - 1, y))
+                count = addDirection(count, -1, 0);
+            if (walkable(x, y + 1))
+                count = addDirection(count, 0, 1);
+            if (walkable(x + 1, y))
+                count = addDirection(count, 1, 0);
+            return count;
+        }
+
+        int dx = Integer.signum(x - (parent % width));
+        int dy = Integer.signum(y - (parent / width));
+
+        if (dx != 0) {
+            if (walkable(x, y - 1))
+                count = addDirection(count, 0, -1);
+            if (walkable(x, y + 1))
+                count = addDirection(count, 0, 1);
+            if (walkable(x + dx, y))
+                count = addDirection(count, dx, 0);
+        } else {
+            if (walkable(x - 1, y))
+                count = addDirection(count, -1, 0);
+            if (walkable(x + 1, y))
+                count = addDirection(count, 1, 0);
+            if (walkable(x, y + dy))
+                count = addDirection(count, 0, dy);
+        }
+        return count;
+    }
+
+    /**
+     * 4-connected counterpart of {@link #jump8(int, int, int, int)}. Vertical jumps stop wherever a horizontal
+     * jump would find a jump point, so turns are only taken at jump points.
+     */
+    private int jump4(int x, int y, int dx, int dy){
+        while (true) {
+            x += dx;
+            y += dy;
+            if (!walkable(x, y))
+                return -1;
+
+            int node = (y * width) + x;
+            if (node == goal)
+                return node;
+
+            if (dx != 0) {
+                if ((walkable(x, y - 1) && !walkable(x - dx, y - 1))
+                        || (walkable(x, y + 1) && !walkable(x - dx, y + 1)))
+                    return node;
+            } else {
+                if ((walkable(x - 1, y) && !walkable(x - 1, y - dy))
+                        || (walkable(x + 1, y) && !walkable(x + 1, y - dy)))
+                    return node;
+                if (jump4(x, y, 1, 0) != -1 || jump4(x, y, -1, 0) != -1)
+                    return node;
+            }
+        }
+    }
+
+    @Override
+    public SearchStats getStats() {
+        return workspace.stats();
+    }
+
+    @Override
+    public boolean checkPath(int end) {
+        return closed[end] == stamp;
+    }
+
+    @Override
+    public int getCost(int start, int end) {
+        return dist[end];
+    }
+
+    /**
+     * Fills in the straight and diagonal runs between the jump points. With unit moves the path has
+     * {@code dist[end]} moves, so it is written from the back in a single walk.
+     */
+    @Override
+    public int[] getPath(int start, int end) {
+        int[] path = new int[dist[end] + 1];
+        int i = path.length;
+        for (int cur = end; cur != start; cur = prev[cur]) {
+            // Walk the straight or diagonal segment between two jump points
+            int parent = prev[cur];
+            int dx = Integer.signum((parent % width) - (cur % width));
+            int dy = Integer.signum((parent / width) - (cur / width));
+            int step = (dy * width) + dx;
+            for (int node = cur; node != parent; node += step)
+                path[--i] = node;
+        }
+        path[0] = start;
+        return path;
+    }
+}
@@ -0,0 +1,260 @@
+package core.path;
+
+import core.graph.Graph;
+
+import java.util.Arrays;
+
+/**
+ * Lifelong Planning A* (Koenig and Likhachev). Keeps its g and rhs values between searches for the same graph,
+ * start and end, so after a few cells change only the part of the search those changes reach is redone.
+ * <p>
+ * g is the distance settled by the last expansion of a node, rhs the one-step lookahead over its neighbours.
+ * Nodes where the two differ are queued with the key (min(g, rhs) + h, min(g, rhs)), and the search runs until the
+ * end is consistent and no queued node has a smaller key. The caller changes cells in the graph itself and reports
+ * every change through {@link #cellChanged(int, int)} before the next {@link #solve(Graph, int, int)}. If the
+ * graph's version moved on by more than the changes reported, the planner starts over.
+ * <p>
+ * Every move costs 1 and the state is kept per instance, not in a {@link SearchWorkspace}. The heuristic must be
+ * consistent, the grid distance unless another one is given.
+ * <p>
+ * {@link #solve(Graph, int)} plans without a goal: its key is infinite, so the search runs until the queue is empty
+ * and every reachable node is consistent, and later calls for the same start repair the whole tree.
+ */
+public class LPAStar implements PathFindingAlgorithm {
+
+    // Half the range, so INF + 1 doesn't overflow
+    private static final int INF = Integer.MAX_VALUE / 2;
+
+    private final SearchStats stats = new SearchStats();
+    private final Heuristic heuristic;
+
+    private Graph g;
+    private int width;
+    private int height;
+    private boolean diagonal;
+    private int start = -1;
+    private int end = -1;
+    // Graph version the g and rhs values are in step with
+    private long version;
+
+    private int[] dist = new int[0];
+    private int[] rhs = new int[0];
+    private IndexedMinHeap open;
+    // Neighbour buffers of the node being expanded and of the node whose lookahead is computed
+    private final int[] neighbors = new int[8];
+    private final int[] around = new int[8];
+
+    // Whether the last query was turned down because start and end are in separate regions
+    private boolean separated;
+
+    // Counters of the current search
+    private int expanded;
+    private int relaxed;
+
+    public LPAStar() {
+        this(Heuristic.GRID);
+    }
+
+    public LPAStar(Heuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    /**
+     * Repairs the previous whole-tree search if it was for the same graph and start, otherwise starts over.
+     * Afterwards every node can be checked.
+     */
+    @Override
+    public void solve(Graph g, int start) {
+        prepare(g, start, -1);
+        separated = false;
+        computeShortestPath();
+        stats.finish(this, expanded, relaxed, open.peakSize());
+    }
+
+    /**
+     * Repairs the previous search if it was for the same graph, start and end, otherwise starts over.
+     */
+    @Override
+    public SearchResult solve(Graph g, int start, int end) {
+        prepare(g, start, end);
+        // Queued changes stay queued and are repaired by the next query that needs them
+        separated = !g.sameComponent(start, end);
+        if (separated) {
+            stats.finish(this, 0, 0, 0);
+            return SearchResult.unreachable();
+        }
+        computeShortestPath();
+        stats.finish(this, expanded, relaxed, open.peakSize());
+        return SearchResult.of(this, start, end);
+    }
+
+    private void prepare(Graph g, int start, int end) {
+        stats.start();
+        if (g != this.g || start != this.start || end != this.end || g.isDiagonal() != diagonal
+                || g.getVersion() != version)
+            initialize(g, start, end);
+
+        expanded = 0;
+        relaxed = 0;
+    }
+
+    /**
+     * Tells the planner that the cell at (x, y) was blocked or opened in the graph of the last search, which
+     * accounts for one step of the graph's version. Ignored if there was no search yet.
+     */
+    public void cellChanged(int x, int y) {
+        if (g == null)
+            return;
+
+        version++;
+        int cell = (y * width) + x;
+        updateVertex(cell);
+        int count = candidates(cell, neighbors);
+        for (int i = 0; i < count; i++)
+            updateVertex(neighbors[i]);
+    }
+
+    /**
+     * Forgets the previous search, for example when the grid it was on is replaced.
+     */
+    public void reset() {
+        g = null;
+    }
+
+    private void initialize(Graph g, int start, int end) {
+        this.g = g;
+        this.width = g.getWidth();
+        this.height = g.getHeight();
+        this.diagonal = g.isDiagonal();
+        this.start = start;
+        this.end = end;
+        this.version = g.getVersion();
+
+        int size = g.getSize();
+        if (dist.length < size) {
+            dist = new int[size];
+            rhs = new int[size];
+        }
+        Arrays.fill(dist, 0, size, INF);
+        Arrays.fill(rhs, 0, size, INF);
+        if (open == null)
+            open = new IndexedMinHeap(size);
+        open.ensureCapacity(size);
+        open.clear();
+
+        rhs[start] = 0;
+        open.push(start, key(start));
+    }
+
+    private void computeShortestPath() {
+        // Without a goal its key counts as infinite and the queue is emptied
+        while (!open.isEmpty() && (end < 0 || open.peekKey() < key(end) || rhs[end] != dist[end])) {
+            int u = open.poll();
+            expanded++;
+            int count = candidates(u, neighbors);
+            relaxed += count;
+
+            if (dist[u] > rhs[u]) {
+                // Overconsistent: the lookahead found a shorter distance, settle it
+                dist[u] = rhs[u];
+            } else {
+                // Underconsistent: the old distance is gone, forget it and let u be recomputed
+                dist[u] = INF;
+                updateVertex(u);
+            }
+            for (int i = 0; i < count; i++)
+                updateVertex(neighbors[i]);
+        }
+    }
+
+    /**
+     * Recomputes the lookahead of {@code u} and queues it if it is inconsistent.
+     */
+    private void updateVertex(int u) {
+        if (u != start)
+            rhs[u] = isOpen(u) ? lookahead(u) : INF;
+
+        open.remove(u);
+        if (dist[u] != rhs[u])
+            open.push(u, key(u));
+    }
+
+    /**
+     * Smallest distance of a neighbour of {@code u} plus the step to {@code u}.
+     */
+    private int lookahead(int u) {
+        int count = candidates(u, around);
+        int best = INF;
+        for (int i = 0; i < count; i++)
+            best = Math.min(best, dist[around[i]] + 1);
+        return best;
+    }
+
+    /**
+     * Writes the cells next to {@code u} that are inside the grid and open into {@code out}. This doesn't depend on
+     * {@code u} being open, so it also finds the cells a newly blocked cell used to connect.
+     */
+    private int candidates(int u, int[] out) {
+        int x = u % width;
+        int y = u / width;
+        int count = 0;
+        for (int dy = -1; dy <= 1; dy++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                if ((dx == 0 && dy == 0) || (!diagonal && dx != 0 && dy != 0))
+                    continue;
+                int nx = x + dx;
+                int ny = y + dy;
+                if (nx >= 0 && nx < width && ny >= 0 && ny < height && g.isOpen(nx, ny))
+                    out[count++] = (ny * width) + nx;
+            }
+        }
+        return count;
+    }
+
+    private boolean isOpen(int u) {
+        return g.isOpen(u % width, u / width);
+    }
+
+    private long key(int u) {
+        int k2 = Math.min(dist[u], rhs[u]);
+        int k1 = end < 0 ? k2 : k2 + heuristic.estimate(g, u, end);
+        return ((long) k1 << 32) | k2;
+    }
+
+    @Override
+    public SearchStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public boolean checkPath(int end) {
+        return (this.end < 0 || end == this.end) && !separated && dist[end] < INF && dist[end] == rhs[end];
+    }
+
+    @Override
+    public int getCost(int start, int end) {
+        return dist[end];
+    }
+
+    /**
+     * Walks from {@code end} to the neighbour with the smallest distance until the start is reached. Every move
+     * costs 1, so the path has {@code dist[end]} moves and is written from the back.
+     */
+    @Override
+    public int[] getPath(int start, int end) {
+        int[] path = new int[dist[end] + 1];
+        int i = path.length;
+        int cur = end;
+        while (cur != start) {
+            path[--i] = cur;
+            int count = candidates(cur, neighbors);
+            int next = -1;
+            for (int k = 0; k < count; k++)
+                if (next == -1 || dist[neighbors[k]] < dist[next])
+                    next = neighbors[k];
+            cur = next;
+        }
+        path[0] = start;
+        return path;
+    }
+}
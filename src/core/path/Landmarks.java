@@ -0,0 +1,339 @@
+package core.path;
+
+import core.graph.Graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * ALT heuristic (A*, landmarks and the triangle inequality, Goldberg and Harrelson). The distances from a few
+ * landmark nodes to every node are computed once, and by the triangle inequality |d(L, v) - d(L, t)| is a lower
+ * bound on d(v, t) for every landmark L. On maps with long detours, like mazes, this is far closer to the real
+ * distance than the grid distance, which is still used where it is larger.
+ * <p>
+ * Landmarks are picked by farthest point: each one is the node farthest from the ones before, starting from the
+ * open cell nearest the middle of the grid, so they spread out over its region. Picking them takes a breadth first
+ * search per landmark, one after the other, and the table of each is kept as it is picked. Tables for landmarks
+ * given by the caller are computed in parallel, one landmark per task. A table is stored as {@code char[]} when its
+ * distances fit in 16 bits.
+ * <p>
+ * Every move counts 1. The estimates stay valid after cells are blocked, since distances can only grow, but not
+ * after cells are opened. Tables can be saved and loaded again for the same grid.
+ */
+public final class Landmarks implements Heuristic {
+
+    // Unreached nodes in a narrow table
+    private static final char FAR = Character.MAX_VALUE;
+    private static final int MAGIC = 0x414c5431;
+    // Magic, width, height, diagonal, fingerprint and landmark count
+    private static final int HEADER = 25;
+
+    private final int width;
+    private final int height;
+    private final boolean diagonal;
+    private final long fingerprint;
+    private final int[] landmarks;
+    // Distances from landmark i, in narrow[i] if they fit in a char, otherwise in wide[i]; -1 or FAR if unreached
+    private final char[][] narrow;
+    private final int[][] wide;
+
+    private Landmarks(Graph g, long fingerprint, int[] landmarks, char[][] narrow, int[][] wide) {
+        this.width = g.getWidth();
+        this.height = g.getHeight();
+        this.diagonal = g.isDiagonal();
+        this.fingerprint = fingerprint;
+        this.landmarks = landmarks;
+        this.narrow = narrow;
+        this.wide = wide;
+    }
+
+    /**
+     * Picks up to {@code count} landmarks on {@code g} and computes their distance tables.
+     */
+    public static Landmarks compute(Graph g, int count) {
+        char[][] narrow = new char[Math.max(count, 0)][];
+        int[][] wide = new int[Math.max(count, 0)][];
+        int[] landmarks = select(g, count, narrow, wide);
+        return new Landmarks(g, fingerprint(g), landmarks, Arrays.copyOf(narrow, landmarks.length),
+                Arrays.copyOf(wide, landmarks.length));
+    }
+
+    /**
+     * Computes the distance tables of the given landmarks, in parallel.
+     */
+    public static Landmarks compute(Graph g, int[] landmarks) {
+        char[][] narrow = new char[landmarks.length][];
+        int[][] wide = new int[landmarks.length][];
+        IntStream.range(0, landmarks.length).parallel().forEach(i -> {
+            int[] dist = new int[g.getSize()];
+            int farthest = bfs(g, landmarks[i], dist, new int[g.getSize()]);
+            keep(dist, farthest, i, narrow, wide);
+        });
+        return new Landmarks(g, fingerprint(g), landmarks.clone(), narrow, wide);
+    }
+
+    /**
+     * Farthest point selection of up to {@code count} landmarks. Stops early when every node of the region is a
+     * landmark already.
+     */
+    public static int[] select(Graph g, int count) {
+        return select(g, count, null, null);
+    }
+
+    /**
+     * Farthest point selection, keeping the table of landmark i in {@code narrow[i]} or {@code wide[i]} unless they
+     * are null.
+     */
+    private static int[] select(Graph g, int count, char[][] narrow, int[][] wide) {
+        int seed = middle(g);
+        if (seed < 0 || count <= 0)
+            return new int[0];
+
+        int size = g.getSize();
+        int[] dist = new int[size];
+        int[] queue = new int[size];
+        // Distance of every node to the nearest landmark so far, the seed standing in for the first one
+        int[] nearest = new int[size];
+        int next = bfs(g, seed, nearest, queue);
+
+        int[] selected = new int[count];
+        int found = 0;
+        while (found < count && nearest[next] > 0) {
+            int farthest = bfs(g, next, dist, queue);
+            if (narrow != null) {
+                keep(dist, farthest, found, narrow, wide);
+                // A wide table is kept as it is, so the next search needs an array of its own
+                if (wide[found] != null)
+                    dist = new int[size];
+            }
+            selected[found++] = next;
+            next = -1;
+            for (int v = 0; v < size; v++) {
+                if (nearest[v] < 0)
+                    continue;
+                nearest[v] = Math.min(nearest[v], dist[v]);
+                if (next < 0 || nearest[v] > nearest[next])
+                    next = v;
+            }
+        }
+        return Arrays.copyOf(selected, found);
+    }
+
+    /**
+     * Open node nearest the middle of the grid, -1 if every cell is blocked.
+     */
+    private static int middle(Graph g) {
+        int width = g.getWidth();
+        int height = g.getHeight();
+        int best = -1;
+        long bestDistance = Long.MAX_VALUE;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                long dx = (2L * x) - width;
+                long dy = (2L * y) - height;
+                if (g.isOpen(x, y) && (dx * dx) + (dy * dy) < bestDistance) {
+                    best = (y * width) + x;
+                    bestDistance = (dx * dx) + (dy * dy);
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Breadth first search from {@code source}, writing the distance of every node into {@code dist}, -1 for the
+     * ones it doesn't reach. Returns the node reached last, which is one of the farthest.
+     */
+    private static int bfs(Graph g, int source, int[] dist, int[] queue) {
+        Arrays.fill(dist, -1);
+        int[] neighbors = new int[g.maxDegree()];
+        int head = 0;
+        int tail = 0;
+        dist[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int current = queue[head++];
+            int count = g.neighbors(current, neighbors);
+            for (int i = 0; i < count; i++) {
+                int neigh = neighbors[i];
+                if (dist[neigh] < 0) {
+                    dist[neigh] = dist[current] + 1;
+                    queue[tail++] = neigh;
+                }
+            }
+        }
+        return queue[tail - 1];
+    }
+
+    /**
+     * Stores {@code dist} as the table of landmark {@code i}, narrowed if its largest distance fits in a char.
+     */
+    private static void keep(int[] dist, int farthest, int i, char[][] narrow, int[][] wide) {
+        if (dist[farthest] < FAR)
+            narrow[i] = narrow(dist);
+        else
+            wide[i] = dist;
+    }
+
+    private static char[] narrow(int[] dist) {
+        char[] table = new char[dist.length];
+        for (int v = 0; v < dist.length; v++)
+            table[v] = dist[v] < 0 ? FAR : (char) dist[v];
+        return table;
+    }
+
+    /**
+     * Hash of the size, move model and passability of {@code g}, to tell whether saved tables belong to it.
+     */
+    private static long fingerprint(Graph g) {
+        long hash = (((long) g.getWidth() * 31) + g.getHeight()) * 31 + (g.isDiagonal() ? 1 : 0);
+        long word = 0;
+        for (int v = 0; v < g.getSize(); v++) {
+            word = (word << 1) | (g.isOpen(v % g.getWidth(), v / g.getWidth()) ? 1 : 0);
+            if ((v & 63) == 63) {
+                hash = (hash * 0x9E3779B97F4A7C15L) ^ word;
+                word = 0;
+            }
+        }
+        return (hash * 0x9E3779B97F4A7C15L) ^ word;
+    }
+
+    @Override
+    public int estimate(Graph g, int node, int goal) {
+        int best = GRID.estimate(g, node, goal);
+        for (int i = 0; i < landmarks.length; i++) {
+            int a = distance(i, node);
+            int b = distance(i, goal);
+            if (a >= 0 && b >= 0)
+                best = Math.max(best, Math.abs(a - b));
+        }
+        return best;
+    }
+
+    /**
+     * Distance from landmark {@code i} to {@code node}, -1 if the landmark doesn't reach it.
+     */
+    public int distance(int i, int node) {
+        if (narrow[i] != null) {
+            char d = narrow[i][node];
+            return d == FAR ? -1 : d;
+        }
+        return wide[i][node];
+    }
+
+    public int getCount() {
+        return landmarks.length;
+    }
+
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+
+    /**
+     * Writes the landmarks and their tables to {@code file}.
+     */
+    public void save(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = buffer(HEADER + (landmarks.length * 5));
+            header.putInt(MAGIC).putInt(width).putInt(height).put((byte) (diagonal ? 1 : 0)).putLong(fingerprint)
+                    .putInt(landmarks.length);
+            for (int i = 0; i < landmarks.length; i++)
+                header.putInt(landmarks[i]).put((byte) (narrow[i] != null ? 2 : 4));
+            write(channel, header);
+
+            for (int i = 0; i < landmarks.length; i++) {
+                ByteBuffer table;
+                if (narrow[i] != null) {
+                    table = buffer(narrow[i].length * 2);
+                    table.asCharBuffer().put(narrow[i]);
+                } else {
+                    table = buffer(wide[i].length * 4);
+                    table.asIntBuffer().put(wide[i]);
+                }
+                table.position(table.capacity());
+                write(channel, table);
+            }
+        }
+    }
+
+    /**
+     * Reads tables written by {@link #save(Path)}, which must have been computed for a graph with the same size,
+     * move model and passability as {@code g}.
+     */
+    public static Landmarks load(Path file, Graph g) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = read(channel, HEADER);
+            if (header.getInt() != MAGIC)
+                throw new IOException(file + " is not a landmark file");
+            int width = header.getInt();
+            int height = header.getInt();
+            boolean diagonal = header.get() != 0;
+            long fingerprint = header.getLong();
+            int count = header.getInt();
+            if (width != g.getWidth() || height != g.getHeight() || diagonal != g.isDiagonal()
+                    || fingerprint != fingerprint(g))
+                throw new IOException(file + " was computed for a different grid");
+            int size = g.getSize();
+            // Every table takes at least 2 bytes per node, which bounds the count before anything is allocated
+            if (count < 0 || HEADER + (count * (5 + (2L * size))) > channel.size())
+                throw new IOException(file + " has a bad landmark count: " + count);
+
+            int[] landmarks = new int[count];
+            byte[] bytes = new byte[count];
+            ByteBuffer entries = read(channel, count * 5L);
+            long expected = HEADER + (count * 5L);
+            for (int i = 0; i < count; i++) {
+                landmarks[i] = entries.getInt();
+                bytes[i] = entries.get();
+                if (bytes[i] != 2 && bytes[i] != 4)
+                    throw new IOException(file + " has a bad table width for landmark " + i + ": " + bytes[i]);
+                expected += (long) size * bytes[i];
+            }
+            if (expected != channel.size())
+                throw new IOException(file + " is " + channel.size() + " bytes, expected " + expected);
+
+            char[][] narrow = new char[count][];
+            int[][] wide = new int[count][];
+            for (int i = 0; i < count; i++) {
+                ByteBuffer table = read(channel, (long) size * bytes[i]);
+                if (bytes[i] == 2) {
+                    narrow[i] = new char[size];
+                    table.asCharBuffer().get(narrow[i]);
+                } else {
+                    wide[i] = new int[size];
+                    table.asIntBuffer().get(wide[i]);
+                }
+            }
+            return new Landmarks(g, fingerprint, landmarks, narrow, wide);
+        }
+    }
+
+    private static ByteBuffer buffer(int capacity) {
+        return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
+    private static ByteBuffer read(FileChannel channel, long length) throws IOException {
+        if (length > Integer.MAX_VALUE)
+            throw new IOException("Table too large: " + length + " bytes");
+        ByteBuffer buffer = buffer((int) length);
+        while (buffer.hasRemaining())
+            if (channel.read(buffer) < 0)
+                throw new IOException("Unexpected end of landmark file");
+        buffer.flip();
+        return buffer;
+    }
+
+}
@@ -0,0 +1,214 @@
+package core.path;
+
+import core.graph.EdgeCost;
+import core.graph.Graph;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of search results in front of a {@link PathFindingAlgorithm}, for graphs with uniform move
+ * costs or {@link EdgeCost#terrain(Graph) terrain} costs. Entries are keyed by start, end and move model, and belong to one version of the grid: the cache
+ * follows a grid from version to version as long as it is told about every edit through
+ * {@link #cellChanged(int, int, boolean, long)}, and only drops the entries an edit can affect.
+ * <ul>
+ *     <li>Blocking a cell only removes moves, so only paths through that cell become invalid.</li>
+ *     <li>Opening a cell adds moves, which can only help a path that could pass through the cell at all, i.e.
+ *     whose cost is above the grid distance from its start to the cell and on to its end. That distance counts
+ *     {@link Graph#STRAIGHT_COST} per move for paths found with terrain costs, the least any move can cost there.
+ *     Unreachable entries may become reachable and are dropped.</li>
+ * </ul>
+ * A lookup at a version the cache wasn't told about clears it. One cache should only be used with one algorithm,
+ * since different algorithms may return different paths.
+ * <p>
+ * The cache is thread safe, and a miss searches without holding its lock, so concurrent misses, lookups and edits
+ * don't wait for one another's searches. Algorithms are not thread safe: threads sharing a cache each pass their own
+ * instance.
+ */
+public class PathCache {
+
+    private final int capacity;
+    private final Map<Long, CachedPath> entries;
+
+    // Grid version the entries are valid for and width of the graph they were found on
+    private long version = -1;
+    private int width;
+
+    private long hits;
+    private long misses;
+    private long invalidations;
+
+    public PathCache(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<Long, CachedPath>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedPath> eldest) {
+                return size() > PathCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached result for the query at the graph's current {@link Graph#getVersion() version}, or solves
+     * it with {@code algo} and caches the answer.
+     */
+    public SearchResult solve(PathFindingAlgorithm algo, Graph g, int start, int end) {
+        return solve(algo, g, g.getVersion(), start, end);
+    }
+
+    /**
+     * Returns the cached result for the query, or solves it with {@code algo} and caches the answer. The answer is
+     * only cached if the cache is still at {@code version} once the search is done.
+     *
+     * @param version version of the grid behind {@code g}, bumped by every edit
+     */
+    public SearchResult solve(PathFindingAlgorithm algo, Graph g, long version, int start, int end) {
+        int width = g.getWidth();
+        Long key = key(start, end, g.isDiagonal());
+        synchronized (this) {
+            if (version != this.version || width != this.width) {
+                entries.clear();
+                this.version = version;
+                this.width = width;
+            }
+
+            CachedPath entry = entries.get(key);
+            if (entry != null) {
+                hits++;
+                return entry.result;
+            }
+            misses++;
+        }
+
+        SearchResult result = algo.solve(g, start, end);
+        CachedPath found = new CachedPath(start, end, result, g.isDiagonal(), width);
+        synchronized (this) {
+            // An edit during the search moved the cache on, and the result may not hold at the new version
+            if (version == this.version && width == this.width)
+                entries.put(key, found);
+        }
+        return result;
+    }
+
+    /**
+     * Moves the cache on to {@code version} after the cell at (x, y) was blocked or opened, dropping the entries
+     * the edit may have changed. If an edit in between was missed, everything is dropped.
+     */
+    public synchronized void cellChanged(int x, int y, boolean blocked, long version) {
+        if (version != this.version + 1) {
+            invalidations += entries.size();
+            entries.clear();
+            this.version = version;
+            return;
+        }
+
+        Iterator<Map.Entry<Long, CachedPath>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, CachedPath> e = it.next();
+            boolean affected = blocked ? e.getValue().passesThrough(x, y, width)
+                    : e.getValue().mayImproveThrough(x, y, width);
+            if (affected) {
+                it.remove();
+                invalidations++;
+            }
+        }
+        this.version = version;
+    }
+
+    /**
+     * Drops every entry, for example when the graph is replaced by one with a new version history.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        version = -1;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Entries dropped by {@link #cellChanged(int, int, boolean, long)}.
+     */
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    private static Long key(int start, int end, boolean diagonal) {
+        long key = ((long) start << 32) | (end & 0xffffffffL);
+        return diagonal ? key | Long.MIN_VALUE : key;
+    }
+
+    private static final class CachedPath {
+
+        final int start;
+        final int end;
+        final SearchResult result;
+        final boolean diagonal;
+        // Least cost of a move: 1 for unit costs, STRAIGHT_COST for a path found with terrain costs
+        final int scale;
+        // Bounding box of the path, to skip most paths without walking them
+        final int minX;
+        final int minY;
+        final int maxX;
+        final int maxY;
+
+        CachedPath(int start, int end, SearchResult result, boolean diagonal, int width) {
+            this.start = start;
+            this.end = end;
+            this.result = result;
+            this.diagonal = diagonal;
+            // Unit moves make the cost one less than the number of nodes, terrain moves cost at least STRAIGHT_COST
+            this.scale = result.getCost() > result.getPathLength() - 1 ? Graph.STRAIGHT_COST : 1;
+
+            int loX = Integer.MAX_VALUE;
+            int loY = Integer.MAX_VALUE;
+            int hiX = -1;
+            int hiY = -1;
+            for (int i = 0; i < result.getPathLength(); i++) {
+                int x = result.getNode(i) % width;
+                int y = result.getNode(i) / width;
+                loX = Math.min(loX, x);
+                loY = Math.min(loY, y);
+                hiX = Math.max(hiX, x);
+                hiY = Math.max(hiY, y);
+            }
+            minX = loX;
+            minY = loY;
+            maxX = hiX;
+            maxY = hiY;
+        }
+
+        boolean passesThrough(int x, int y, int width) {
+            if (x < minX || x > maxX || y < minY || y > maxY)
+                return false;
+            int node = (y * width) + x;
+            for (int i = 0; i < result.getPathLength(); i++)
+                if (result.getNode(i) == node)
+                    return true;
+            return false;
+        }
+
+        boolean mayImproveThrough(int x, int y, int width) {
+            if (!result.isReachable())
+                return true;
+            int through = GridHeuristic.distance(x - (start % width), y - (start / width), diagonal)
+                    + GridHeuristic.distance((end % width) - x, (end / width) - y, diagonal);
+            return (long) through * scale < result.getCost();
+        }
+    }
+
+}
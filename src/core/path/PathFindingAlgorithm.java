@@ -1,13 +1,72 @@
 package core.path;
 
+import core.graph.BitGrid;
 import core.graph.Graph;
+import core.graph.GridGraph;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public interface PathFindingAlgorithm {
 
+    /**
+     * Computes the whole single source tree, after which {@link #checkPath(int)} and
+     * {@link #getPath(int, int)} can be asked about any destination.
+     */
     void solve(Graph g, int start);
+
+    /**
+     * Solves for a single destination. Algorithms stop as soon as the path to {@code end} is final, so afterwards
+     * only {@code end} is guaranteed to be answered correctly by {@link #checkPath(int)}. Algorithms that can't
+     * use the target compute the whole tree.
+     *
+     * @return the path to {@code end}, independent of any later search
+     */
+    default SearchResult solve(Graph g, int start, int end) {
+        solve(g, start);
+        return SearchResult.of(this, start, end);
+    }
+
+    /**
+     * Solves for a single destination directly on a packed grid. The grid is wrapped, not copied.
+     */
+    default SearchResult solve(BitGrid grid, boolean diagonal, int start, int end) {
+        return solve(new GridGraph(grid, diagonal), start, end);
+    }
+
+    /**
+     * Statistics of the last search, valid until the next search on the same workspace. Null if the algorithm
+     * doesn't keep any.
+     */
+    default SearchStats getStats() {
+        return null;
+    }
+
     boolean checkPath(int end);
-    List<Integer> getBacktrace(int start, int end);
+
+    /**
+     * Nodes of the path to {@code end} found by the last search, both ends included. Only valid if
+     * {@link #checkPath(int)} holds for {@code end}. The array is new and belongs to the caller.
+     */
+    int[] getPath(int start, int end);
+
+    /**
+     * Boxed nodes of the path to {@code end} between the two ends, kept for compatibility. Prefer
+     * {@link #getPath(int, int)}.
+     */
+    default List<Integer> getBacktrace(int start, int end) {
+        int[] path = getPath(start, end);
+        List<Integer> ret = new ArrayList<>(Math.max(0, path.length - 2));
+        for (int i = 1; i < path.length - 1; i++)
+            ret.add(path[i]);
+        return ret;
+    }
+
+    /**
+     * Cost of the path to {@code end} found by the last search. Every move costs 1 unless the algorithm says otherwise.
+     */
+    default int getCost(int start, int end) {
+        return getPath(start, end).length - 1;
+    }
 
 }
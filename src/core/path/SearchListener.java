@@ -0,0 +1,21 @@
+package core.path;
+
+/**
+ * Callback invoked after every search, registered with {@link SearchStats#setListener(SearchListener)}.
+ * <p>
+ * Listeners are only called when the JVM runs with {@code -Dcore.path.listeners=true}. The flag is read once into
+ * {@link #ENABLED}, a constant the JIT folds, so with the flag off the dispatch and the allocation measurement it
+ * needs are compiled out of the searches.
+ */
+@FunctionalInterface
+public interface SearchListener {
+
+    boolean ENABLED = Boolean.getBoolean("core.path.listeners");
+
+    /**
+     * Called on the searching thread. {@code stats} is reused by the next search on the same workspace, copy what
+     * has to be kept.
+     */
+    void searchFinished(PathFindingAlgorithm algorithm, SearchStats stats);
+
+}
@@ -0,0 +1,72 @@
+package core.path;
+
+/**
+ * Immutable outcome of a single start to end query. Unlike the algorithm that produced it, a result stays valid
+ * after further searches and can be handed to other threads.
+ */
+public final class SearchResult {
+
+    private static final int[] EMPTY = new int[0];
+    private static final SearchResult UNREACHABLE = new SearchResult(false, -1, EMPTY);
+
+    private final boolean reachable;
+    private final int cost;
+    private final int[] path;
+
+    private SearchResult(boolean reachable, int cost, int[] path) {
+        this.reachable = reachable;
+        this.cost = cost;
+        this.path = path;
+    }
+
+    public static SearchResult unreachable() {
+        return UNREACHABLE;
+    }
+
+    /**
+     * Result for a path given as its full node sequence, both ends included. The array is taken over, not copied.
+     */
+    public static SearchResult of(int cost, int[] path) {
+        return new SearchResult(true, cost, path);
+    }
+
+    /**
+     * Captures the answer of an algorithm that has just solved from {@code start}.
+     */
+    public static SearchResult of(PathFindingAlgorithm algo, int start, int end) {
+        if (!algo.checkPath(end))
+            return UNREACHABLE;
+        if (start == end)
+            return new SearchResult(true, 0, new int[]{start});
+        return new SearchResult(true, algo.getCost(start, end), algo.getPath(start, end));
+    }
+
+    public boolean isReachable() {
+        return reachable;
+    }
+
+    /**
+     * Cost of the path, -1 if the end isn't reachable.
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * Number of nodes on the path, both ends included. 0 if the end isn't reachable.
+     */
+    public int getPathLength() {
+        return path.length;
+    }
+
+    public int getNode(int index) {
+        return path[index];
+    }
+
+    /**
+     * Copy of the path from start to end, both included.
+     */
+    public int[] getPath() {
+        return path.clone();
+    }
+}
@@ -0,0 +1,111 @@
+package core.path;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Counters of the last search run on a {@link SearchWorkspace}. The searches count in locals and write the totals
+ * once at the end, so keeping the statistics costs a couple of clock reads per search.
+ * <p>
+ * What counts as a step depends on the algorithm: an expanded node is one taken off the open list (the stack for
+ * DFS, the jump points for JPS), a relaxed edge is one looked at from an expanded node.
+ */
+public final class SearchStats {
+
+    private static volatile SearchListener listener;
+
+    private long startNanos;
+    private long startBytes;
+
+    private int nodesExpanded;
+    private int edgesRelaxed;
+    private int peakOpen;
+    private long nanos;
+    private long bytesAllocated = -1;
+
+    SearchStats() {
+    }
+
+    /**
+     * Installs the listener called after every search, null to remove it. Has no effect unless
+     * {@link SearchListener#ENABLED}.
+     */
+    public static void setListener(SearchListener listener) {
+        SearchStats.listener = listener;
+    }
+
+    void start() {
+        if (SearchListener.ENABLED)
+            startBytes = Allocations.currentThread();
+        startNanos = System.nanoTime();
+    }
+
+    void finish(PathFindingAlgorithm algorithm, int expanded, int relaxed, int peak) {
+        nanos = System.nanoTime() - startNanos;
+        nodesExpanded = expanded;
+        edgesRelaxed = relaxed;
+        peakOpen = peak;
+
+        if (SearchListener.ENABLED) {
+            long bytes = Allocations.currentThread();
+            bytesAllocated = startBytes < 0 ? -1 : bytes - startBytes;
+            SearchListener current = listener;
+            if (current != null)
+                current.searchFinished(algorithm, this);
+        }
+    }
+
+    public int getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    public int getEdgesRelaxed() {
+        return edgesRelaxed;
+    }
+
+    /**
+     * Largest size the open list (queue, heap or stack) reached.
+     */
+    public int getPeakOpen() {
+        return peakOpen;
+    }
+
+    /**
+     * Wall time of the search, not including building the result.
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Bytes the searching thread allocated during the search, -1 when listeners are disabled or the JVM can't
+     * measure it.
+     */
+    public long getBytesAllocated() {
+        return bytesAllocated;
+    }
+
+    @Override
+    public String toString() {
+        String text = String.format("expanded %d, relaxed %d, peak open %d, %.3f ms",
+                nodesExpanded, edgesRelaxed, peakOpen, nanos / 1e6);
+        return bytesAllocated < 0 ? text : text + ", " + bytesAllocated + " bytes";
+    }
+
+    /**
+     * Per-thread allocation counter of HotSpot, only touched when listeners are enabled.
+     */
+    private static final class Allocations {
+
+        private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+        private static com.sun.management.ThreadMXBean threads() {
+            Object bean = ManagementFactory.getThreadMXBean();
+            return bean instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) bean : null;
+        }
+
+        static long currentThread() {
+            return THREADS == null ? -1 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+    }
+
+}
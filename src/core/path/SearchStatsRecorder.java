@@ -0,0 +1,91 @@
+package core.path;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Listener that aggregates the statistics of every search into per-algorithm histograms, for headless runs that
+ * dump them at the end. Values are kept in power-of-two buckets, so percentiles are exact to within a factor of two.
+ * Safe to use from several searching threads.
+ */
+public class SearchStatsRecorder implements SearchListener {
+
+    private static final String[] METRICS = {"nodes expanded", "edges relaxed", "peak open", "wall time (us)",
+            "bytes allocated"};
+
+    private final Map<String, Histogram[]> histograms = new LinkedHashMap<>();
+
+    @Override
+    public synchronized void searchFinished(PathFindingAlgorithm algorithm, SearchStats stats) {
+        Histogram[] metrics = histograms.get(algorithm.getClass().getSimpleName());
+        if (metrics == null) {
+            metrics = new Histogram[METRICS.length];
+            for (int i = 0; i < metrics.length; i++)
+                metrics[i] = new Histogram();
+            histograms.put(algorithm.getClass().getSimpleName(), metrics);
+        }
+
+        metrics[0].add(stats.getNodesExpanded());
+        metrics[1].add(stats.getEdgesRelaxed());
+        metrics[2].add(stats.getPeakOpen());
+        metrics[3].add(stats.getNanos() / 1000);
+        if (stats.getBytesAllocated() >= 0)
+            metrics[4].add(stats.getBytesAllocated());
+    }
+
+    public synchronized void clear() {
+        histograms.clear();
+    }
+
+    /**
+     * Prints count, mean, median, 90th and 99th percentile and maximum of every metric of every algorithm.
+     */
+    public synchronized void dump(PrintStream out) {
+        out.printf("%-22s %-16s %8s %12s %12s %12s %12s %12s%n", "algorithm", "metric", "count", "mean", "p50",
+                "p90", "p99", "max");
+        for (Map.Entry<String, Histogram[]> entry : histograms.entrySet()) {
+            Histogram[] metrics = entry.getValue();
+            for (int i = 0; i < metrics.length; i++) {
+                Histogram h = metrics[i];
+                if (h.count == 0)
+                    continue;
+                out.printf("%-22s %-16s %8d %12.1f %12d %12d %12d %12d%n", entry.getKey(), METRICS[i], h.count,
+                        (double) h.sum / h.count, h.percentile(0.5), h.percentile(0.9), h.percentile(0.99), h.max);
+            }
+        }
+    }
+
+    /**
+     * Counts of values by bit length: bucket 0 holds 0, bucket b holds [2^(b-1), 2^b).
+     */
+    private static final class Histogram {
+
+        private final long[] buckets = new long[65];
+        private long count;
+        private long sum;
+        private long max;
+
+        void add(long value) {
+            buckets[64 - Long.numberOfLeadingZeros(value)]++;
+            count++;
+            sum += value;
+            max = Math.max(max, value);
+        }
+
+        /**
+         * Upper end of the bucket holding the {@code fraction} quantile, capped by the maximum seen.
+         */
+        long percentile(double fraction) {
+            long rank = (long) Math.ceil(count * fraction);
+            long seen = 0;
+            for (int b = 0; b < buckets.length; b++) {
+                seen += buckets[b];
+                if (seen >= rank)
+                    return b == 0 ? 0 : Math.min(max, (1L << b) - 1);
+            }
+            return max;
+        }
+    }
+
+}
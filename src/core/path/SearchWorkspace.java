@@ -0,0 +1,211 @@
+package core.path;
+
+import java.util.Arrays;
+
+/**
+ * Scratch memory for the searches in this package, kept between queries so that a search on a graph of a size
+ * seen before allocates nothing. Arrays are created the first time an algorithm asks for them and only grow.
+ * <p>
+ * Visited and closed sets are stamp arrays: a node is marked when its entry equals {@link #stamp}, so starting a
+ * new search is O(1) instead of clearing every array. Arrays that are only meaningful for marked nodes, like
+ * distances, are never cleared either.
+ * <p>
+ * An algorithm's results live in its workspace until the next search that uses it, so algorithms sharing one
+ * (for example through {@link #forCurrentThread()}) must be queried before another one runs.
+ */
+public final class SearchWorkspace {
+
+    private static final int[] EMPTY = new int[0];
+    private static final long[] EMPTY_LONG = new long[0];
+    private static final ThreadLocal<SearchWorkspace> LOCAL = ThreadLocal.withInitial(SearchWorkspace::new);
+
+    // Number of nodes of the current search
+    private int size;
+    int stamp;
+
+    private int[] dist = EMPTY;
+    private int[] dist2 = EMPTY;
+    private int[] prev = EMPTY;
+    private int[] next = EMPTY;
+    private int[] hops = EMPTY;
+    // Distances that can leave the int range, for large or negative costs
+    private long[] labels = EMPTY_LONG;
+    private long[] labels2 = EMPTY_LONG;
+
+    private int[] seen = EMPTY;
+    private int[] seen2 = EMPTY;
+    private int[] closed = EMPTY;
+    private int[] closed2 = EMPTY;
+    private int[] queued = EMPTY;
+
+    private IndexedMinHeap heap;
+    private IndexedMinHeap heap2;
+    private IntDeque deque;
+    private IntDeque deque2;
+    private BucketQueue buckets;
+    private int[] neighbors = EMPTY;
+    private int[] costs = EMPTY;
+
+    private final SearchStats stats = new SearchStats();
+
+    // Explicit stack for the depth first search, grown by its user
+    int[] stack = new int[64];
+    int[] cursor = new int[64];
+
+    /**
+     * Workspace of the calling thread.
+     */
+    public static SearchWorkspace forCurrentThread() {
+        return LOCAL.get();
+    }
+
+    /**
+     * Starts a new search over {@code size} nodes. Everything marked by the previous search becomes unmarked.
+     */
+    void begin(int size) {
+        this.size = size;
+        stamp++;
+        if (stamp == Integer.MAX_VALUE) {
+            // Stamps are about to wrap around, start over with clean arrays
+            clear(seen);
+            clear(seen2);
+            clear(closed);
+            clear(closed2);
+            clear(queued);
+            stamp = 1;
+        }
+        if (heap != null)
+            heap.clear();
+        if (heap2 != null)
+            heap2.clear();
+        if (deque != null)
+            deque.clear();
+        if (deque2 != null)
+            deque2.clear();
+        if (buckets != null)
+            buckets.clear();
+        stats.start();
+    }
+
+    private static void clear(int[] marks) {
+        Arrays.fill(marks, 0);
+    }
+
+    private int[] sized(int[] array) {
+        return array.length >= size ? array : new int[size];
+    }
+
+    int[] dist() {
+        return dist = sized(dist);
+    }
+
+    int[] dist2() {
+        return dist2 = sized(dist2);
+    }
+
+    int[] prev() {
+        return prev = sized(prev);
+    }
+
+    int[] next() {
+        return next = sized(next);
+    }
+
+    int[] hops() {
+        return hops = sized(hops);
+    }
+
+    long[] labels() {
+        if (labels.length < size)
+            labels = new long[size];
+        return labels;
+    }
+
+    long[] labels2() {
+        if (labels2.length < size)
+            labels2 = new long[size];
+        return labels2;
+    }
+
+    int[] seen() {
+        return seen = sized(seen);
+    }
+
+    int[] seen2() {
+        return seen2 = sized(seen2);
+    }
+
+    int[] closed() {
+        return closed = sized(closed);
+    }
+
+    int[] closed2() {
+        return closed2 = sized(closed2);
+    }
+
+    int[] queued() {
+        return queued = sized(queued);
+    }
+
+    IndexedMinHeap heap() {
+        if (heap == null)
+            heap = new IndexedMinHeap(size);
+        heap.ensureCapacity(size);
+        return heap;
+    }
+
+    IndexedMinHeap heap2() {
+        if (heap2 == null)
+            heap2 = new IndexedMinHeap(size);
+        heap2.ensureCapacity(size);
+        return heap2;
+    }
+
+    IntDeque deque() {
+        if (deque == null)
+            deque = new IntDeque(64);
+        return deque;
+    }
+
+    IntDeque deque2() {
+        if (deque2 == null)
+            deque2 = new IntDeque(64);
+        return deque2;
+    }
+
+    /**
+     * Bucket queue with {@code count} buckets, sized for the current search.
+     */
+    BucketQueue buckets(int count) {
+        if (buckets == null)
+            buckets = new BucketQueue(size);
+        buckets.ensureCapacity(size);
+        buckets.reset(count);
+        return buckets;
+    }
+
+    /**
+     * Statistics of the current search, started by {@link #begin(int)} and finished by the algorithm.
+     */
+    SearchStats stats() {
+        return stats;
+    }
+
+    /**
+     * Buffer for {@link core.graph.Graph#neighbors(int, int[])}.
+     */
+    int[] neighbors(int maxDegree) {
+        if (neighbors.length < maxDegree)
+            neighbors = new int[maxDegree];
+        return neighbors;
+    }
+
+    /**
+     * Buffer for the edge costs of {@link core.graph.Graph#neighbors(int, int[], int[])}.
+     */
+    int[] costs(int maxDegree) {
+        if (costs.length < maxDegree)
+            costs = new int[maxDegree];
+        return costs;
+    }
+}
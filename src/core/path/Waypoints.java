@@ -0,0 +1,151 @@
+package core.path;
+
+import core.graph.Graph;
+
+import java.util.Arrays;
+
+/**
+ * Compact forms of grid paths, for handing them on. A path from {@link SearchResult#getPath()} lists every cell;
+ * most of its nodes sit in the middle of straight or diagonal runs and can be left out.
+ * <ul>
+ *     <li>{@link #turningPoints(int[], int)} keeps the ends and the nodes where the direction changes. It is
+ *     lossless: {@link #expand(int[], int)} gives the original path back.</li>
+ *     <li>{@link #smooth(Graph, int[])} pulls the path taut: it drops every node the path can cut past in a
+ *     straight line, so fewer waypoints remain, at any angle, and the path gets shorter. Meant for agents that
+ *     move freely between waypoints, not along the grid's edges.</li>
+ * </ul>
+ */
+public final class Waypoints {
+
+    private Waypoints() { }
+
+    /**
+     * Ends of {@code path} and the nodes where it changes direction, in order.
+     *
+     * @param width width of the grid the path was found on
+     */
+    public static int[] turningPoints(int[] path, int width) {
+        if (path.length <= 2)
+            return path.clone();
+
+        int[] points = new int[path.length];
+        int count = 0;
+        points[count++] = path[0];
+        for (int i = 1; i < path.length - 1; i++) {
+            // Compare the moves in and out by coordinates, node deltas are ambiguous on very narrow grids
+            int inX = (path[i] % width) - (path[i - 1] % width);
+            int inY = (path[i] / width) - (path[i - 1] / width);
+            int outX = (path[i + 1] % width) - (path[i] % width);
+            int outY = (path[i + 1] / width) - (path[i] / width);
+            if (inX != outX || inY != outY)
+                points[count++] = path[i];
+        }
+        points[count++] = path[path.length - 1];
+        return Arrays.copyOf(points, count);
+    }
+
+    /**
+     * Full path through {@code points}, each consecutive pair joined by a straight or diagonal run.
+     *
+     * @throws IllegalArgumentException if two consecutive points are not on one row, column or diagonal
+     */
+    public static int[] expand(int[] points, int width) {
+        if (points.length == 0)
+            return points.clone();
+
+        int length = 1;
+        for (int i = 1; i < points.length; i++)
+            length += run(points[i - 1], points[i], width);
+
+        int[] path = new int[length];
+        int pos = 0;
+        path[pos++] = points[0];
+        for (int i = 1; i < points.length; i++) {
+            int steps = run(points[i - 1], points[i], width);
+            int dx = Integer.signum((points[i] % width) - (points[i - 1] % width));
+            int dy = Integer.signum((points[i] / width) - (points[i - 1] / width));
+            for (int k = 1; k <= steps; k++)
+                path[pos++] = points[i - 1] + (k * ((dy * width) + dx));
+        }
+        return path;
+    }
+
+    /**
+     * Number of moves on the straight or diagonal run from {@code from} to {@code to}.
+     */
+    private static int run(int from, int to, int width) {
+        int dx = Math.abs((to % width) - (from % width));
+        int dy = Math.abs((to / width) - (from / width));
+        if (dx != 0 && dy != 0 && dx != dy)
+            throw new IllegalArgumentException("No straight or diagonal run from " + from + " to " + to);
+        return Math.max(dx, dy);
+    }
+
+    /**
+     * String pulling over the turning points of {@code path}: keeps a turning point only where the straight line
+     * from the last one kept to the one after it is blocked. Consecutive waypoints either see each other or are
+     * joined by a straight or diagonal run of the path, and there are never more of them than turning points.
+     */
+    public static int[] smooth(Graph g, int[] path) {
+        int width = g.getWidth();
+        int[] turns = turningPoints(path, width);
+        if (turns.length <= 2)
+            return turns;
+
+        int count = 0;
+        int anchor = turns[0];
+        // Written over the turning points, never ahead of the one being looked at
+        turns[count++] = anchor;
+        for (int i = 2; i < turns.length; i++) {
+            int previous = turns[i - 1];
+            if (previous != anchor && !lineOfSight(g, anchor % width, anchor / width, turns[i] % width,
+                    turns[i] / width)) {
+                anchor = previous;
+                turns[count++] = anchor;
+            }
+        }
+        turns[count++] = turns[turns.length - 1];
+        return Arrays.copyOf(turns, count);
+    }
+
+    /**
+     * Whether the straight line between the centres of (x0, y0) and (x1, y1) only crosses open cells. Every cell
+     * the line touches counts, and a line through the corner where four cells meet needs all four open, so the
+     * line never touches a blocked cell, not even at a corner.
+     */
+    public static boolean lineOfSight(Graph g, int x0, int y0, int x1, int y1) {
+        int dx = Math.abs(x1 - x0);
+        int dy = Math.abs(y1 - y0);
+        int sx = Integer.signum(x1 - x0);
+        int sy = Integer.signum(y1 - y0);
+        int x = x0;
+        int y = y0;
+        if (!g.isOpen(x, y))
+            return false;
+
+        int ix = 0;
+        int iy = 0;
+        while (ix < dx || iy < dy) {
+            // Which cell border the line crosses next: (0.5 + ix) / dx against (0.5 + iy) / dy
+            long decision = ((1 + (2L * ix)) * dy) - ((1 + (2L * iy)) * dx);
+            if (decision == 0) {
+                // Through a corner, the two cells beside it must be open too
+                if (!g.isOpen(x + sx, y) || !g.isOpen(x, y + sy))
+                    return false;
+                x += sx;
+                y += sy;
+                ix++;
+                iy++;
+            } else if (decision < 0) {
+                x += sx;
+                ix++;
+            } else {
+                y += sy;
+                iy++;
+            }
+            if (!g.isOpen(x, y))
+                return false;
+        }
+        return true;
+    }
+}
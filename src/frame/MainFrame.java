@@ -1,15 +1,18 @@
 package frame;
 
+import core.graph.BitGrid;
 import core.graph.Graph;
+import core.graph.GridGraph;
 import core.path.*;
 
 import javax.swing.*;
 
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 
 import java.util.*;
-import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class MainFrame {
@@ -19,13 +22,16 @@ public class MainFrame {
         TALE_TYPE_START,
         TALE_TYPE_END,
         TALE_TYPE_WALL,
-        TALE_TYPE_PATH
+        TALE_TYPE_PATH,
+        // Not a tale of its own: paints the terrain cost of free tales
+        TALE_TYPE_COST
     }
 
     private final JFrame frame;
 
     private static final int BUTTON_LEFT = 1;
     private static final int BUTTON_RIGHT= 2;
+    private static final int BUTTON_MIDDLE = 3;
 
     private static int TALE_SIZE = 25;
     private static final int BORDER_SIZE = 1;
@@ -33,13 +39,40 @@ public class MainFrame {
     private static int WIDTH = 20;
 
     private static final int CANVAS_OFFSET = 60;
+    // Largest canvas, bigger maps are zoomed and panned inside it
+    private static final int MAX_VIEW_WIDTH = 800;
+    private static final int MAX_VIEW_HEIGHT = 600;
+    private static final int MAX_ZOOM = 32;
+    // Smallest zoom the tale borders are drawn at
+    private static final int BORDER_ZOOM = 4;
+    private static final int PATH_CACHE_SIZE = 256;
+    private static final int MAX_PAINTED_COST = 9;
 
     private final AtomicInteger clicked;
     private TaleType[][] grid;
-
-    private final Map<TaleType, Color> colorMap;
+    // Passability of the tales, kept in step with grid so a search doesn't have to copy it
+    private BitGrid passable;
+
+    // RGB of every tale type by ordinal
+    private final int[] taleColors;
+    // RGB of a free tale by terrain cost, from white at 1 to brown at MAX_PAINTED_COST
+    private final int[] costColors;
+    // One pixel per tale, scaled up by zoom when drawn; pixels is its backing array
+    private BufferedImage image;
+    private int[] pixels;
+    // Canvas pixels per tale, and the scaled image position at the top left corner of the canvas
+    private int zoom;
+    private int viewX;
+    private int viewY;
+    // Nodes marked by the last search, so they can be cleared without scanning the grid
+    private int[] markedPath = new int[0];
     private final Map<ButtonModel, TaleType> radioButtonMap;
     private final Map<String, PathFindingAlgorithm> comboBoxMap;
+    private final Map<PathFindingAlgorithm, PathCache> pathCaches;
+    private final LPAStar planner;
+    private final HPAStar hierarchical;
+    // Edited in place and kept while the move model stays the same, so caches and the planner can follow its version
+    private GridGraph graph;
 
     private final ButtonGroup buttonGroup;
     private JComboBox<String> combo;
@@ -52,8 +85,10 @@ public class MainFrame {
     private int tempWidth;
     private int tempHeight;
     private int tempTaleSize;
+    private int paintedCost = 5;
 
     private final PathCanvasMouseHandler mouseHandler;
+    private PathCanvas canvas;
 
     private class PathCanvas extends JPanel {
 
@@ -61,32 +96,39 @@ public class MainFrame {
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
 
-            int xOff = 0;
-            int yOff = 0;
-
             g.setColor(Color.lightGray);
             g.fillRect(0, 0, super.getWidth(), super.getHeight());
 
-            for (int i = 0; i < MainFrame.HEIGHT; i++) {
-                for (int j = 0; j < MainFrame.WIDTH; j++) {
-                    g.setColor(colorMap.get(grid[i][j]));
-                    g.fillRect(xOff, yOff, TALE_SIZE - BORDER_SIZE, TALE_SIZE - BORDER_SIZE);
-                    xOff += TALE_SIZE;
-                }
-                xOff = 0;
-                yOff += TALE_SIZE;
-            }
+            // Only the tales inside the clip are scaled, edits repaint no more than their own tales
+            Rectangle clip = g.getClipBounds();
+            if (clip == null)
+                clip = new Rectangle(0, 0, super.getWidth(), super.getHeight());
+            int x0 = Integer.max((clip.x + viewX) / zoom, 0);
+            int y0 = Integer.max((clip.y + viewY) / zoom, 0);
+            int x1 = Integer.min((clip.x + clip.width + viewX + zoom - 1) / zoom, MainFrame.WIDTH);
+            int y1 = Integer.min((clip.y + clip.height + viewY + zoom - 1) / zoom, MainFrame.HEIGHT);
+            if (x0 >= x1 || y0 >= y1)
+                return;
+
+            ((Graphics2D) g).setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                    RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            g.drawImage(image, (x0 * zoom) - viewX, (y0 * zoom) - viewY, (x1 * zoom) - viewX, (y1 * zoom) - viewY,
+                    x0, y0, x1, y1, null);
+
+            if (zoom < BORDER_ZOOM)
+                return;
+            g.setColor(Color.lightGray);
+            for (int x = x0; x < x1; x++)
+                g.fillRect(((x + 1) * zoom) - viewX - BORDER_SIZE, (y0 * zoom) - viewY, BORDER_SIZE, (y1 - y0) * zoom);
+            for (int y = y0; y < y1; y++)
+                g.fillRect((x0 * zoom) - viewX, ((y + 1) * zoom) - viewY - BORDER_SIZE, (x1 - x0) * zoom, BORDER_SIZE);
         }
     }
 
-    private class PathCanvasMouseHandler implements MouseMotionListener, MouseListener {
+    private class PathCanvasMouseHandler implements MouseMotionListener, MouseListener, MouseWheelListener {
 
-        private PathCanvas canvas;
-
-        public void setCanvas(PathCanvas canvas){
-            this.canvas = null;
-            this.canvas = canvas;
-        }
+        // Where the last press or drag was, to fill in the tales a fast drag skips and to pan from
+        private final Point last = new Point();
 
         @Override
         public void mouseClicked(MouseEvent e) { }
@@ -101,18 +143,24 @@ public class MainFrame {
                 case MouseEvent.BUTTON3:
                     clicked.set(BUTTON_RIGHT);
                     break;
+                case MouseEvent.BUTTON2:
+                    clicked.set(BUTTON_MIDDLE);
+                    flag = false;
+                    break;
                 default:
                     flag = false;
                     break;
             }
 
-            if (flag && setTaleByMouseEvent(e, false))
-                canvas.repaint();
+            if (flag)
+                setTaleByMouseEvent(e, last, false);
+            last.setLocation(e.getPoint());
         }
 
         @Override
         public void mouseReleased(MouseEvent e) {
-            if (e.getButton() == MouseEvent.BUTTON1 || e.getButton() == MouseEvent.BUTTON3)
+            if (e.getButton() == MouseEvent.BUTTON1 || e.getButton() == MouseEvent.BUTTON2
+                    || e.getButton() == MouseEvent.BUTTON3)
                 clicked.set(0);
         }
 
@@ -124,12 +172,20 @@ public class MainFrame {
 
         @Override
         public void mouseDragged(MouseEvent e) {
-            if (clicked.get() > 0 && setTaleByMouseEvent(e, true))
-                canvas.repaint();
+            if (clicked.get() == BUTTON_MIDDLE)
+                panBy(last.x - e.getX(), last.y - e.getY());
+            else if (clicked.get() > 0)
+                setTaleByMouseEvent(e, last, true);
+            last.setLocation(e.getPoint());
         }
 
         @Override
         public void mouseMoved(MouseEvent e) { }
+
+        @Override
+        public void mouseWheelMoved(MouseWheelEvent e) {
+            zoomAt(e.getX(), e.getY(), e.getWheelRotation() < 0);
+        }
     }
 
     public MainFrame() {
@@ -141,24 +197,42 @@ public class MainFrame {
         mouseHandler = new PathCanvasMouseHandler();
 
         clicked = new AtomicInteger(0);
-        colorMap = new HashMap<>();
         radioButtonMap = new HashMap<>();
         comboBoxMap = new LinkedHashMap<>();
+        pathCaches = new HashMap<>();
         buttonGroup = new ButtonGroup();
 
         startPoint = new Point();
         endPoint = new Point();
 
-        colorMap.put(TaleType.TALE_TYPE_NONE, Color.white);
-        colorMap.put(TaleType.TALE_TYPE_START, Color.green);
-        colorMap.put(TaleType.TALE_TYPE_END, Color.red);
-        colorMap.put(TaleType.TALE_TYPE_WALL, Color.black);
-        colorMap.put(TaleType.TALE_TYPE_PATH, Color.blue);
+        taleColors = new int[TaleType.values().length];
+        taleColors[TaleType.TALE_TYPE_NONE.ordinal()] = Color.white.getRGB();
+        taleColors[TaleType.TALE_TYPE_START.ordinal()] = Color.green.getRGB();
+        taleColors[TaleType.TALE_TYPE_END.ordinal()] = Color.red.getRGB();
+        taleColors[TaleType.TALE_TYPE_WALL.ordinal()] = Color.black.getRGB();
+        taleColors[TaleType.TALE_TYPE_PATH.ordinal()] = Color.blue.getRGB();
+        costColors = new int[MAX_PAINTED_COST + 1];
+        for (int cost = 1; cost <= MAX_PAINTED_COST; cost++) {
+            float t = (cost - 1) / (float) (MAX_PAINTED_COST - 1);
+            costColors[cost] = new Color(255 - Math.round(t * 135), 255 - Math.round(t * 175),
+                    255 - Math.round(t * 215)).getRGB();
+        }
 
         comboBoxMap.put("DFS", new DFS());
         comboBoxMap.put("BFS", new BFS());
         comboBoxMap.put("Dijkstra", new Dijkstra());
+        comboBoxMap.put("Dial", new Dial());
         comboBoxMap.put("BellmanFord", new BellmanFord());
+        comboBoxMap.put("A*", new AStar());
+        comboBoxMap.put("JPS", new JumpPointSearch());
+        comboBoxMap.put("Bi-BFS", new BidirectionalBFS());
+        comboBoxMap.put("Bi-Dijkstra", new BidirectionalDijkstra());
+        planner = new LPAStar();
+        comboBoxMap.put("LPA*", planner);
+        hierarchical = new HPAStar();
+        comboBoxMap.put("HPA*", hierarchical);
+        for (PathFindingAlgorithm algo : comboBoxMap.values())
+            pathCaches.put(algo, new PathCache(PATH_CACHE_SIZE));
 
         frame = new JFrame();
         frame.setTitle("Path Finding");
@@ -176,9 +250,17 @@ public class MainFrame {
     }
 
     private void setFrameSize(){
-        int w = (TALE_SIZE * WIDTH) + 125;
-        int h = (TALE_SIZE * HEIGHT) + CANVAS_OFFSET + 60;
-        frame.setSize(Integer.max(w, 480), Integer.max(h, 320));
+        int w = viewWidth() + 125;
+        int h = viewHeight() + CANVAS_OFFSET + 60;
+        frame.setSize(Integer.max(w, 480), Integer.max(h, 400));
+    }
+
+    private static int viewWidth(){
+        return Integer.min(TALE_SIZE * WIDTH, MAX_VIEW_WIDTH);
+    }
+
+    private static int viewHeight(){
+        return Integer.min(TALE_SIZE * HEIGHT, MAX_VIEW_HEIGHT);
     }
 
     private void validatePoint(Point p, int defaultValue){
@@ -192,12 +274,21 @@ public class MainFrame {
         for (TaleType[] taleArr : grid){
             Arrays.fill(taleArr, TaleType.TALE_TYPE_NONE);
         }
+        Arrays.fill(pixels, taleColors[TaleType.TALE_TYPE_NONE.ordinal()]);
+        markedPath = new int[0];
+        passable = new BitGrid(WIDTH, HEIGHT, true);
+        graph = new GridGraph(passable, graph != null && graph.isDiagonal());
+        for (PathCache cache : pathCaches.values())
+            cache.clear();
+        planner.reset();
+        hierarchical.reset();
 
         validatePoint(startPoint, 0);
         validatePoint(endPoint, Integer.min(WIDTH, HEIGHT) - 1);
 
-        grid[startPoint.y][startPoint.x] = TaleType.TALE_TYPE_START;
-        grid[endPoint.y][endPoint.x] = TaleType.TALE_TYPE_END;
+        setTale(startPoint.x, startPoint.y, TaleType.TALE_TYPE_START);
+        setTale(endPoint.x, endPoint.y, TaleType.TALE_TYPE_END);
+        canvas.repaint();
     }
 
     private void applyFrameChange(JPanel panel){
@@ -236,7 +327,12 @@ public class MainFrame {
 
     private void initialize() {
         JPanel panel = new JPanel();
+        canvas = new PathCanvas();
         grid = new TaleType[HEIGHT][WIDTH];
+        image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        zoom = TALE_SIZE;
+        viewX = viewY = 0;
         initGrid();
         // Add top shelf components
         String[] keys = comboBoxMap.keySet().toArray(new String[0]);
@@ -256,23 +352,23 @@ public class MainFrame {
         resultField.setFont(new Font(resultField.getFont().getName(), Font.PLAIN, 20));
         panel.add(resultField);
 
-        int spinnerX = (WIDTH * TALE_SIZE) + 15;
+        int spinnerX = viewWidth() + 15;
 
         addSpinnerExplanationText("Width", spinnerX,60, panel);
         addSpinnerExplanationText("Height", spinnerX, 110, panel);
         addSpinnerExplanationText("Tale Size", spinnerX, 160, panel);
 
-        JSpinner widthSpinner = new JSpinner(new SpinnerNumberModel(WIDTH, 5, 75, 1));
+        JSpinner widthSpinner = new JSpinner(new SpinnerNumberModel(WIDTH, 5, 4096, 1));
         widthSpinner.addChangeListener(e -> tempWidth = (int) widthSpinner.getValue());
         widthSpinner.setBounds(spinnerX, 80, 80, 25);
         panel.add(widthSpinner);
 
-        JSpinner heightSpinner = new JSpinner(new SpinnerNumberModel(HEIGHT, 5, 75, 1));
+        JSpinner heightSpinner = new JSpinner(new SpinnerNumberModel(HEIGHT, 5, 4096, 1));
         heightSpinner.addChangeListener(e -> tempHeight = (int) heightSpinner.getValue());
         heightSpinner.setBounds(spinnerX, 130, 80, 25);
         panel.add(heightSpinner);
 
-        JSpinner taleSizeSpinner = new JSpinner(new SpinnerNumberModel(TALE_SIZE, 10, 25, 1));
+        JSpinner taleSizeSpinner = new JSpinner(new SpinnerNumberModel(TALE_SIZE, 1, 25, 1));
         taleSizeSpinner.addChangeListener(e -> tempTaleSize = (int) taleSizeSpinner.getValue());
         taleSizeSpinner.setBounds(spinnerX, 180, 80, 25);
         panel.add(taleSizeSpinner);
@@ -282,26 +378,34 @@ public class MainFrame {
         applyButton.addActionListener(e -> applyFrameChange(panel));
         panel.add(applyButton);
 
-        PathCanvas canvas = new PathCanvas();
-        canvas.setBounds(5, CANVAS_OFFSET, WIDTH * TALE_SIZE, HEIGHT * TALE_SIZE);
+        // Terrain brush, only the weighted searches see the costs
+        JRadioButton costButton = new JRadioButton("Cost");
+        costButton.setBounds(spinnerX, 290, 80, 25);
+        panel.add(costButton);
+        buttonGroup.add(costButton);
+        radioButtonMap.put(costButton.getModel(), TaleType.TALE_TYPE_COST);
+
+        JSpinner costSpinner = new JSpinner(new SpinnerNumberModel(paintedCost, 1, MAX_PAINTED_COST, 1));
+        costSpinner.addChangeListener(e -> paintedCost = (int) costSpinner.getValue());
+        costSpinner.setBounds(spinnerX, 315, 80, 25);
+        panel.add(costSpinner);
+
+        canvas.setBounds(5, CANVAS_OFFSET, viewWidth(), viewHeight());
         panel.add(canvas);
-        this.mouseHandler.setCanvas(canvas);
 
         // Add panel to frame
         frame.getContentPane().add(panel, BorderLayout.CENTER);
         panel.setLayout(null);
 
         // Add listeners
-        panel.addMouseMotionListener(this.mouseHandler);
-        panel.addMouseListener(this.mouseHandler);
+        canvas.addMouseMotionListener(this.mouseHandler);
+        canvas.addMouseListener(this.mouseHandler);
+        canvas.addMouseWheelListener(this.mouseHandler);
 
         // Add buttons
         JButton pathButton = new JButton("Find");
         pathButton.setBounds(290, 5, 80, 25);
-        pathButton.addActionListener(e -> {
-            findPath();
-            canvas.repaint();
-        });
+        pathButton.addActionListener(e -> findPath());
         panel.add(pathButton);
 
         JButton clearButton = new JButton("Clear");
@@ -309,7 +413,6 @@ public class MainFrame {
         clearButton.addActionListener(e -> {
             initGrid();
             resultField.setText("");
-            canvas.repaint();
         });
         panel.add(clearButton);
 
@@ -320,23 +423,28 @@ public class MainFrame {
     }
 
     private boolean addTale(int x, int y, TaleType type, boolean drag){
+        if (type == TaleType.TALE_TYPE_COST)
+            return setCost(x, y, paintedCost);
+
         boolean ret = false;
         if (drag){
             if (type == TaleType.TALE_TYPE_WALL){
-                grid[y][x] = type;
+                setTale(x, y, type);
+                setBlocked(x, y, true);
                 ret = true;
             }
         } else {
             if (type == TaleType.TALE_TYPE_START){
-                grid[startPoint.y][startPoint.x] = TaleType.TALE_TYPE_NONE;
+                setTale(startPoint.x, startPoint.y, TaleType.TALE_TYPE_NONE);
                 startPoint.setLocation(x, y);
                 validatePoint(startPoint, 0);
             } else if (type == TaleType.TALE_TYPE_END){
-                grid[endPoint.y][endPoint.x] = TaleType.TALE_TYPE_NONE;
+                setTale(endPoint.x, endPoint.y, TaleType.TALE_TYPE_NONE);
                 endPoint.setLocation(x, y);
                 validatePoint(endPoint, Integer.min(WIDTH, HEIGHT) - 1);
             }
-            grid[y][x] = type;
+            setTale(x, y, type);
+            setBlocked(x, y, type == TaleType.TALE_TYPE_WALL);
             ret = true;
         }
         return ret;
@@ -344,26 +452,101 @@ public class MainFrame {
 
     private boolean removeTale(int x, int y){
         if (grid[y][x] == TaleType.TALE_TYPE_WALL || grid[y][x] == TaleType.TALE_TYPE_PATH){
-            grid[y][x] = TaleType.TALE_TYPE_NONE;
+            setTale(x, y, TaleType.TALE_TYPE_NONE);
+            setBlocked(x, y, false);
             return true;
         }
         return false;
     }
 
-    private boolean setTaleByMouseEvent(MouseEvent e, boolean drag){
-        int x = e.getX();
-        int y = e.getY() - CANVAS_OFFSET;
-        boolean inBounds = (x >= 0 && x < WIDTH * TALE_SIZE) && (y >= 0 && y < HEIGHT * TALE_SIZE);
+    private void setBlocked(int x, int y, boolean blocked){
+        long version = graph.getVersion();
+        graph.setBlocked(x, y, blocked);
+        // Let the caches drop only the paths this edit affects
+        if (graph.getVersion() != version) {
+            for (PathCache cache : pathCaches.values())
+                cache.cellChanged(x, y, blocked, graph.getVersion());
+            planner.cellChanged(x, y);
+            hierarchical.cellChanged(x, y);
+        }
+    }
+
+    private boolean setCost(int x, int y, int cost){
+        long version = graph.getVersion();
+        graph.setCost(x, y, cost);
+        if (graph.getVersion() == version)
+            return false;
+        if (grid[y][x] == TaleType.TALE_TYPE_NONE)
+            setTale(x, y, TaleType.TALE_TYPE_NONE);
+        // The caches start over at their next lookup, the planners are told like for any other edit
+        planner.cellChanged(x, y);
+        hierarchical.cellChanged(x, y);
+        return true;
+    }
+
+    // Sets the tale and its pixel, and repaints that tale alone
+    private void setTale(int x, int y, TaleType type){
+        grid[y][x] = type;
+        if (type == TaleType.TALE_TYPE_NONE)
+            pixels[(y * WIDTH) + x] = costColors[Integer.min(graph.getCost(x, y), MAX_PAINTED_COST)];
+        else
+            pixels[(y * WIDTH) + x] = taleColors[type.ordinal()];
+        canvas.repaint((x * zoom) - viewX, (y * zoom) - viewY, zoom, zoom);
+    }
 
-        if (inBounds) {
-            x = x / TALE_SIZE;
-            y = y / TALE_SIZE;
+    // Zooms in or out by a factor of 2, keeping the tale under (x, y) on the canvas in place
+    private void zoomAt(int x, int y, boolean in){
+        int next = in ? Integer.min(zoom * 2, MAX_ZOOM) : Integer.max(zoom / 2, 1);
+        if (next == zoom)
+            return;
+        viewX = (int) (((long) (x + viewX) * next) / zoom) - x;
+        viewY = (int) (((long) (y + viewY) * next) / zoom) - y;
+        zoom = next;
+        panBy(0, 0);
+        canvas.repaint();
+    }
+
+    // Moves the view, never past the edges of the map
+    private void panBy(int dx, int dy){
+        int x = Integer.max(Integer.min(viewX + dx, (WIDTH * zoom) - canvas.getWidth()), 0);
+        int y = Integer.max(Integer.min(viewY + dy, (HEIGHT * zoom) - canvas.getHeight()), 0);
+        if (x == viewX && y == viewY)
+            return;
+        viewX = x;
+        viewY = y;
+        canvas.repaint();
+    }
 
+    // A drag also covers the tales on the line from last, which a fast drag at a small zoom would skip
+    private boolean setTaleByMouseEvent(MouseEvent e, Point last, boolean drag){
+        int x = Math.floorDiv(e.getX() + viewX, zoom);
+        int y = Math.floorDiv(e.getY() + viewY, zoom);
+        if (!drag)
+            return setTaleAt(x, y, false);
+
+        int fromX = Math.floorDiv(last.x + viewX, zoom);
+        int fromY = Math.floorDiv(last.y + viewY, zoom);
+        int steps = Integer.max(Math.abs(x - fromX), Math.abs(y - fromY));
+        boolean changed = false;
+        for (int i = 1; i <= steps; i++) {
+            int tx = fromX + Math.round((x - fromX) * i / (float) steps);
+            int ty = fromY + Math.round((y - fromY) * i / (float) steps);
+            changed |= setTaleAt(tx, ty, true);
+        }
+        return changed;
+    }
+
+    private boolean setTaleAt(int x, int y, boolean drag){
+        boolean inBounds = (x >= 0 && x < WIDTH) && (y >= 0 && y < HEIGHT);
+
+        if (inBounds) {
             if (clicked.get() == BUTTON_LEFT){
                 if (grid[y][x] == TaleType.TALE_TYPE_NONE || grid[y][x] == TaleType.TALE_TYPE_PATH) {
                     TaleType type = radioButtonMap.get(buttonGroup.getSelection());
                     return addTale(x, y, type, drag);
                 }
+            } else if (radioButtonMap.get(buttonGroup.getSelection()) == TaleType.TALE_TYPE_COST) {
+                return setCost(x, y, 1);
             } else {
                 return removeTale(x, y);
             }
@@ -373,53 +556,58 @@ public class MainFrame {
     }
 
     private void clearPrevPath(){
-        for (int i = 0; i < grid.length; i++) {
-            for (int j = 0; j < grid[0].length; j++) {
-                if (grid[i][j] == TaleType.TALE_TYPE_PATH)
-                    grid[i][j] = TaleType.TALE_TYPE_NONE;
-            }
+        for (int point : markedPath) {
+            int x = point % WIDTH;
+            int y = point / WIDTH;
+            if (grid[y][x] == TaleType.TALE_TYPE_PATH)
+                setTale(x, y, TaleType.TALE_TYPE_NONE);
         }
+        markedPath = new int[0];
     }
 
     private void findPath() {
         clearPrevPath();
-        // Copy current grid information as boolean grid
-        boolean[][] tempGrid = new boolean[HEIGHT][WIDTH];
-
-        for (int i = 0; i < grid.length; i++) {
-            for (int j = 0; j < grid[0].length; j++) {
-                if (grid[i][j] != TaleType.TALE_TYPE_WALL)
-                    tempGrid[i][j] = true;
-            }
-        }
 
         PathFindingAlgorithm algo = comboBoxMap.get(String.valueOf(combo.getSelectedItem()));
-        startAlgorithm(algo, tempGrid);
+        startAlgorithm(algo, passable);
     }
 
-    private void startAlgorithm(PathFindingAlgorithm algo, boolean[][] grid) {
+    private void startAlgorithm(PathFindingAlgorithm algo, BitGrid grid) {
         int start = (startPoint.y * WIDTH) + startPoint.x;
         int end = (endPoint.y * WIDTH) + endPoint.x;
 
-        Graph g = new Graph(grid, checkBox.isSelected());
-        algo.solve(g, start);
-        if (algo.checkPath(end)) {
-            List<Integer> backtrace = algo.getBacktrace(start, end);
-            markPath(backtrace);
+        // Edits go through the graph, it is only replaced when the move model changes
+        if (graph.getGrid() != grid || graph.isDiagonal() != checkBox.isSelected())
+            graph = new GridGraph(grid, checkBox.isSelected());
+        Graph g = graph;
+        PathCache cache = pathCaches.get(algo);
+        long hits = cache.getHits();
+        SearchResult result = cache.solve(algo, g, start, end);
+
+        String details;
+        if (cache.getHits() != hits)
+            details = " (cached, " + cache.getHits() + " hits / " + cache.getMisses() + " misses)";
+        else
+            details = algo.getStats() == null ? "" : " (" + algo.getStats() + ")";
+        if (result.isReachable()) {
+            markPath(result);
             resultField.setForeground(Color.black);
-            resultField.setText("Path has been found and marked. Path distance: " + backtrace.size());
+            resultField.setText("Path distance: " + result.getCost() + details);
         } else {
             resultField.setForeground(Color.red);
-            resultField.setText("NO PATH FOUND");
+            resultField.setText("NO PATH FOUND" + details);
         }
     }
 
-    private void markPath(List<Integer> path){
-        for (int point : path){
+    private void markPath(SearchResult path){
+        markedPath = path.getPath();
+        // Start and end keep their own colors
+        for (int i = 1; i < markedPath.length - 1; i++){
+            int point = markedPath[i];
             int x = point % WIDTH;
             int y = point / WIDTH;
 
-            grid[y][x] = TaleType.TALE_TYPE_PATH;
+            setTale(x, y, TaleType.TALE_TYPE_PATH);
         }
 
     }
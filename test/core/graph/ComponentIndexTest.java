@@ -0,0 +1,113 @@
+package core.graph;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class ComponentIndexTest {
+
+    @Test
+    public void incrementalEditsMatchAFloodFill() {
+        Random random = new Random(31);
+        for (boolean diagonal : new boolean[]{false, true}) {
+            for (int t = 0; t < 10; t++) {
+                int w = 5 + random.nextInt(30);
+                int h = 5 + random.nextInt(30);
+                // Around the percolation threshold, where single cells split and join regions
+                BitGrid grid = randomGrid(random, w, h, diagonal ? 0.55 : 0.4);
+                Graph g = t % 2 == 0 ? new GridGraph(grid, diagonal) : new CsrGraph(grid, diagonal);
+                assertMatchesFloodFill(g, random);
+                for (int edit = 0; edit < 300; edit++) {
+                    int x = random.nextInt(w);
+                    int y = random.nextInt(h);
+                    g.setBlocked(x, y, g.isOpen(x, y));
+                    assertMatchesFloodFill(g, random);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void oneGridKeepsAnIndexPerMoveModel() {
+        Random random = new Random(41);
+        BitGrid grid = randomGrid(random, 25, 25, 0.45);
+        Graph straight = new GridGraph(grid, false);
+        Graph diagonal = new GridGraph(grid, true);
+        for (int edit = 0; edit < 300; edit++) {
+            grid.setBlocked(random.nextInt(25), random.nextInt(25), random.nextBoolean());
+            assertMatchesFloodFill(straight, random);
+            assertMatchesFloodFill(diagonal, random);
+        }
+    }
+
+    @Test
+    public void buildJoinsRowBands() {
+        Random random = new Random(37);
+        for (boolean diagonal : new boolean[]{false, true}) {
+            Graph g = new GridGraph(randomGrid(random, 90, 200, diagonal ? 0.5 : 0.35), diagonal);
+            assertMatchesFloodFill(g, random);
+        }
+    }
+
+    /**
+     * Checks every open node against the first node found in its component, and against a random node.
+     */
+    private static void assertMatchesFloodFill(Graph g, Random random) {
+        int[] labels = floodFill(g);
+        int[] first = new int[g.getSize()];
+        Arrays.fill(first, -1);
+        for (int v = 0; v < g.getSize(); v++) {
+            if (labels[v] < 0)
+                continue;
+            if (first[labels[v]] < 0)
+                first[labels[v]] = v;
+            assertEquals("node " + v, true, g.sameComponent(v, first[labels[v]]));
+            int other = random.nextInt(g.getSize());
+            boolean expected = v == other || (labels[other] >= 0 && labels[other] == labels[v]);
+            assertEquals("nodes " + v + " and " + other, expected, g.sameComponent(v, other));
+        }
+    }
+
+    /**
+     * Component number of every open node, -1 for blocked ones.
+     */
+    private static int[] floodFill(Graph g) {
+        int[] labels = new int[g.getSize()];
+        Arrays.fill(labels, -1);
+        int[] queue = new int[g.getSize()];
+        int[] neighbors = new int[g.maxDegree()];
+        int components = 0;
+        for (int v = 0; v < g.getSize(); v++) {
+            if (labels[v] >= 0 || !g.isOpen(v % g.getWidth(), v / g.getWidth()))
+                continue;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = v;
+            labels[v] = components;
+            while (head < tail) {
+                int cur = queue[head++];
+                int count = g.neighbors(cur, neighbors);
+                for (int i = 0; i < count; i++) {
+                    if (labels[neighbors[i]] < 0) {
+                        labels[neighbors[i]] = components;
+                        queue[tail++] = neighbors[i];
+                    }
+                }
+            }
+            components++;
+        }
+        return labels;
+    }
+
+    private static BitGrid randomGrid(Random random, int width, int height, double density) {
+        BitGrid grid = new BitGrid(width, height, true);
+        for (int y = 0; y < height; y++)
+            for (int x = 0; x < width; x++)
+                if (random.nextDouble() < density)
+                    grid.setBlocked(x, y, true);
+        return grid;
+    }
+}
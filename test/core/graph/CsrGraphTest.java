@@ -0,0 +1,105 @@
+package core.graph;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class CsrGraphTest {
+
+    @Test
+    public void parallelBandsMatchTheImplicitGrid() {
+        // Several bands of rows, the last one partial
+        boolean[][] cells = Layout.RANDOM.generate(300, 0.3, 13);
+        for (boolean diagonal : new boolean[]{false, true}) {
+            CsrGraph csr = new CsrGraph(cells, diagonal);
+            GridGraph implicit = new GridGraph(cells, diagonal);
+            assertSameEdges(implicit, csr);
+            assertEquals(implicit.getVertexList(), csr.getVertexList());
+        }
+    }
+
+    @Test
+    public void rowStreamBuildsTheSameGraph() throws IOException {
+        boolean[][] cells = Layout.RANDOM.generate(150, 0.3, 17);
+        for (boolean diagonal : new boolean[]{false, true}) {
+            CsrGraph fromArray = new CsrGraph(cells, diagonal);
+            CsrGraph fromRows = CsrGraph.fromRows(rows(cells), diagonal);
+            assertSameEdges(fromArray, fromRows);
+            assertEquals(fromArray.getVertexList(), fromRows.getVertexList());
+        }
+    }
+
+    @Test
+    public void editedGraphMatchesRebuiltOne() {
+        int n = 150;
+        for (boolean diagonal : new boolean[]{false, true}) {
+            BitGrid grid = new BitGrid(Layout.RANDOM.generate(n, 0.2, 23));
+            CsrGraph edited = new CsrGraph(grid, diagonal);
+            Random random = new Random(29);
+            for (int i = 0; i < 1000; i++) {
+                int x = random.nextInt(n);
+                int y = random.nextInt(n);
+                boolean blocked = grid.isOpen(x, y);
+                long version = edited.getVersion();
+                edited.setBlocked(x, y, blocked);
+                grid.setBlocked(x, y, blocked);
+                assertEquals(version + 1, edited.getVersion());
+                assertEquals(!blocked, edited.isOpen(x, y));
+            }
+
+            CsrGraph rebuilt = new CsrGraph(grid, diagonal);
+            assertSameEdges(rebuilt, edited);
+            assertEquals(rebuilt.getVertexCount(), edited.getVertexCount());
+            List<Integer> vertices = new ArrayList<>(edited.getVertexList());
+            Collections.sort(vertices);
+            assertEquals(rebuilt.getVertexList(), vertices);
+        }
+    }
+
+    private static void assertSameEdges(Graph expected, Graph found) {
+        assertEquals(expected.getSize(), found.getSize());
+        int[] a = new int[expected.maxDegree()];
+        int[] b = new int[found.maxDegree()];
+        for (int v = 0; v < expected.getSize(); v++) {
+            int count = expected.neighbors(v, a);
+            assertEquals("node " + v, count, found.neighbors(v, b));
+            int[] left = Arrays.copyOf(a, count);
+            int[] right = Arrays.copyOf(b, count);
+            Arrays.sort(left);
+            Arrays.sort(right);
+            assertArrayEquals("node " + v, left, right);
+        }
+    }
+
+    private static GridRowReader rows(boolean[][] cells) {
+        return new GridRowReader() {
+            private int y;
+
+            @Override
+            public int getWidth() {
+                return cells[0].length;
+            }
+
+            @Override
+            public int getHeight() {
+                return cells.length;
+            }
+
+            @Override
+            public boolean readRow(boolean[] row) {
+                if (y == cells.length)
+                    return false;
+                System.arraycopy(cells[y++], 0, row, 0, row.length);
+                return true;
+            }
+        };
+    }
+}
@@ -0,0 +1,107 @@
+package core.io;
+
+import core.graph.BitGrid;
+import core.graph.GridRowReader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class MovingAiTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readsCrlfMap() throws IOException {
+        BitGrid grid = MovingAi.readMap(file("crlf.map", "type octile\r\nheight 3\r\nwidth 4\r\nmap\r\n"
+                + ".@GS\r\nT..W\r\n..O.\r\n"));
+        assertEquals(4, grid.getWidth());
+        assertEquals(3, grid.getHeight());
+        String expected = ".@GS" + "T..W" + "..O.";
+        for (int y = 0; y < 3; y++)
+            for (int x = 0; x < 4; x++)
+                assertEquals(x + "," + y, "GS.".indexOf(expected.charAt((y * 4) + x)) >= 0, grid.isOpen(x, y));
+    }
+
+    @Test
+    public void mapRowsMatchReadMap() throws IOException {
+        // Wider than one word of the bit grid, without a line break after the last row
+        StringBuilder text = new StringBuilder("type octile\nheight 5\nwidth 70\nmap\n");
+        for (int y = 0; y < 5; y++) {
+            if (y > 0)
+                text.append('\n');
+            for (int x = 0; x < 70; x++)
+                text.append((x * 7 + y * 3) % 5 == 0 ? '@' : '.');
+        }
+        Path file = file("wide.map", text.toString());
+
+        BitGrid grid = MovingAi.readMap(file);
+        GridRowReader rows = MovingAi.mapRows(file);
+        assertEquals(70, rows.getWidth());
+        assertEquals(5, rows.getHeight());
+        boolean[] row = new boolean[70];
+        for (int y = 0; y < 5; y++) {
+            assertTrue(rows.readRow(row));
+            for (int x = 0; x < 70; x++) {
+                assertEquals(x + "," + y, (x * 7 + y * 3) % 5 != 0, grid.isOpen(x, y));
+                assertEquals(x + "," + y, grid.isOpen(x, y), row[x]);
+            }
+        }
+        assertFalse(rows.readRow(row));
+    }
+
+    @Test
+    public void readsTabSeparatedScenarios() throws IOException {
+        List<Scenario> scenarios = MovingAi.readScenarios(file("tabs.scen", "version 1\r\n"
+                + "0\tarena.map\t49\t49\t1\t11\t1\t12\t1\r\n"
+                + "3\tarena.map\t49\t49\t45\t2\t31\t40\t42.41421356\r\n"));
+        assertEquals(2, scenarios.size());
+
+        Scenario last = scenarios.get(1);
+        assertEquals(3, last.getBucket());
+        assertEquals("arena.map", last.getMap());
+        assertEquals(49, last.getMapWidth());
+        assertEquals(49, last.getMapHeight());
+        assertEquals(45, last.getStartX());
+        assertEquals(2, last.getStartY());
+        assertEquals(31, last.getGoalX());
+        assertEquals(40, last.getGoalY());
+        assertEquals(42.41421356, last.getOptimalLength(), 1e-9);
+        assertEquals((2 * 49) + 45, last.getStart());
+        assertEquals((40 * 49) + 31, last.getGoal());
+    }
+
+    @Test
+    public void shortRowIsAnError() throws IOException {
+        Path file = file("short.map", "type octile\nheight 2\nwidth 3\nmap\n...\n..\n");
+        IOException error = assertThrows(IOException.class, () -> MovingAi.readMap(file));
+        assertTrue(error.getMessage(), error.getMessage().contains("Row 1 is shorter"));
+    }
+
+    @Test
+    public void longRowIsAnError() throws IOException {
+        Path file = file("long.map", "type octile\nheight 2\nwidth 3\nmap\n....\n...\n");
+        IOException error = assertThrows(IOException.class, () -> MovingAi.readMap(file));
+        assertTrue(error.getMessage(), error.getMessage().contains("Row 0 is longer"));
+
+        GridRowReader rows = MovingAi.mapRows(file);
+        assertThrows(IOException.class, () -> rows.readRow(new boolean[3]));
+    }
+
+    private Path file(String name, String content) throws IOException {
+        Path file = folder.getRoot().toPath().resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+}
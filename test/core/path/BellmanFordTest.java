@@ -0,0 +1,71 @@
+package core.path;
+
+import core.graph.BitGrid;
+import core.graph.EdgeCost;
+import core.graph.Graph;
+import core.graph.GridGraph;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BellmanFordTest {
+
+    private final Graph g = new GridGraph(new BitGrid(6, 1, true), false);
+
+    @Test
+    public void matchesDijkstraOnTerrain() {
+        Random random = new Random(3);
+        for (int t = 0; t < 50; t++) {
+            BitGrid grid = TestGrids.randomGrid(random, 3 + random.nextInt(30), 3 + random.nextInt(30), 0.2);
+            for (int i = 0; i < grid.getWidth() * grid.getHeight() / 3; i++)
+                grid.setCost(random.nextInt(grid.getWidth()), random.nextInt(grid.getHeight()), 1 + random.nextInt(9));
+            Graph terrain = new GridGraph(grid, random.nextBoolean());
+            int start = TestGrids.randomOpen(terrain, random);
+
+            Dijkstra expected = new Dijkstra(EdgeCost.terrain(terrain));
+            BellmanFord bellmanFord = new BellmanFord(EdgeCost.terrain(terrain));
+            expected.solve(terrain, start);
+            bellmanFord.solve(terrain, start);
+            for (int v = 0; v < terrain.getSize(); v++) {
+                assertEquals("node " + v, expected.checkPath(v), bellmanFord.checkPath(v));
+                if (expected.checkPath(v))
+                    assertEquals("node " + v, expected.getCost(start, v), bellmanFord.getCost(start, v));
+            }
+        }
+    }
+
+    @Test
+    public void distancesPastTheIntRangeStayExact() {
+        BellmanFord bellmanFord = new BellmanFord((u, v) -> 1_000_000_000);
+        bellmanFord.solve(g, 0);
+        assertFalse(bellmanFord.hasNegativeCycle());
+        assertEquals(5_000_000_000L, bellmanFord.getDistance(5));
+        assertEquals(2_000_000_000, bellmanFord.getCost(0, 2));
+        try {
+            bellmanFord.getCost(0, 5);
+            fail("Cost past Integer.MAX_VALUE was narrowed");
+        } catch (ArithmeticException expected) {
+            // getDistance has it in full
+        }
+    }
+
+    @Test
+    public void largeNegativeCostsAreACycleNotAnOverflow() {
+        BellmanFord bellmanFord = new BellmanFord((u, v) -> -1_500_000_000);
+        bellmanFord.solve(g, 0);
+        assertTrue(bellmanFord.hasNegativeCycle());
+    }
+
+    @Test
+    public void negativeEdgesWithoutACycle() {
+        BellmanFord bellmanFord = new BellmanFord((u, v) -> v > u ? -1_000_000_000 : 2_000_000_000);
+        bellmanFord.solve(g, 0);
+        assertFalse(bellmanFord.hasNegativeCycle());
+        assertEquals(-5_000_000_000L, bellmanFord.getDistance(5));
+    }
+}
@@ -0,0 +1,92 @@
+package core.path;
+
+import core.graph.BitGrid;
+import core.graph.CsrGraph;
+import core.graph.EdgeCost;
+import core.graph.Graph;
+import core.graph.GridGraph;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class BidirectionalSearchTest {
+
+    @Test
+    public void unitCostsMatchDijkstra() {
+        Random random = new Random(13);
+        for (int t = 0; t < 150; t++) {
+            Graph g = randomGraph(random);
+            Dijkstra expected = new Dijkstra();
+            PathFindingAlgorithm[] algorithms = {new BidirectionalBFS(), new BidirectionalDijkstra()};
+            for (int q = 0; q < 5; q++) {
+                int start = TestGrids.randomOpen(g, random);
+                int end = TestGrids.randomOpen(g, random);
+                SearchResult exact = expected.solve(g, start, end);
+                for (PathFindingAlgorithm algo : algorithms) {
+                    SearchResult found = algo.solve(g, start, end);
+                    String query = algo.getClass().getSimpleName() + " " + start + " to " + end;
+                    assertEquals(query, exact.isReachable(), found.isReachable());
+                    if (!exact.isReachable())
+                        continue;
+                    assertEquals(query, exact.getCost(), found.getCost());
+                    assertEquals(query, exact.getCost() + 1, found.getPathLength());
+                    TestGrids.assertPath(g, found.getPath(), start, end);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void terrainCostsMatchDijkstra() {
+        Random random = new Random(17);
+        for (int t = 0; t < 150; t++) {
+            Graph g = randomGraph(random);
+            for (int i = 0; i < g.getSize() / 3; i++)
+                g.setCost(random.nextInt(g.getWidth()), random.nextInt(g.getHeight()), 1 + random.nextInt(9));
+            EdgeCost cost = EdgeCost.terrain(g);
+            Dijkstra expected = new Dijkstra(cost);
+            BidirectionalDijkstra bidirectional = new BidirectionalDijkstra(cost);
+            for (int q = 0; q < 5; q++) {
+                int start = TestGrids.randomOpen(g, random);
+                int end = TestGrids.randomOpen(g, random);
+                SearchResult exact = expected.solve(g, start, end);
+                SearchResult found = bidirectional.solve(g, start, end);
+                String query = start + " to " + end;
+                assertEquals(query, exact.isReachable(), found.isReachable());
+                if (!exact.isReachable())
+                    continue;
+                assertEquals(query, exact.getCost(), found.getCost());
+                int[] path = found.getPath();
+                TestGrids.assertPath(g, path, start, end);
+                int sum = 0;
+                for (int i = 0; i + 1 < path.length; i++)
+                    sum += cost.cost(path[i], path[i + 1]);
+                assertEquals(query, found.getCost(), sum);
+            }
+        }
+    }
+
+    @Test
+    public void wholeTreeMatchesBreadthFirst() {
+        Random random = new Random(19);
+        for (int t = 0; t < 40; t++) {
+            Graph g = randomGraph(random);
+            int start = TestGrids.randomOpen(g, random);
+            for (PathFindingAlgorithm algo : new PathFindingAlgorithm[]{new BidirectionalBFS(),
+                    new BidirectionalDijkstra()}) {
+                // A point query first, so the whole-tree search has to switch modes
+                algo.solve(g, start, TestGrids.randomOpen(g, random));
+                TestGrids.assertSameTreeAsBreadthFirst(algo, g, start);
+            }
+        }
+    }
+
+    private static Graph randomGraph(Random random) {
+        BitGrid grid = TestGrids.randomGrid(random, 3 + random.nextInt(40), 3 + random.nextInt(40),
+                0.1 + (0.3 * random.nextDouble()));
+        boolean diagonal = random.nextBoolean();
+        return random.nextBoolean() ? new GridGraph(grid, diagonal) : new CsrGraph(grid, diagonal);
+    }
+}
@@ -0,0 +1,79 @@
+package core.path;
+
+import core.graph.BitGrid;
+import core.graph.CsrGraph;
+import core.graph.EdgeCost;
+import core.graph.Graph;
+import core.graph.GridGraph;
+import core.graph.Layout;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class DialTest {
+
+    @Test
+    public void matchesDijkstraOnTerrain() {
+        int n = 200;
+        BitGrid grid = new BitGrid(Layout.RANDOM.generate(n, 0.2, 59));
+        Random random = new Random(61);
+        for (int patch = 0; patch < n; patch++) {
+            int cx = random.nextInt(n);
+            int cy = random.nextInt(n);
+            int radius = 2 + random.nextInt(n / 20 + 1);
+            int cost = 1 + random.nextInt(9);
+            for (int y = Math.max(0, cy - radius); y < Math.min(n, cy + radius); y++)
+                for (int x = Math.max(0, cx - radius); x < Math.min(n, cx + radius); x++)
+                    grid.setCost(x, y, cost);
+        }
+
+        for (Graph g : new Graph[]{new GridGraph(grid, true), new CsrGraph(grid, true)}) {
+            Random queries = new Random(67);
+            PathFindingAlgorithm heap = new Dijkstra(EdgeCost.terrain(g));
+            PathFindingAlgorithm buckets = new Dial();
+            for (int q = 0; q < 100; q++) {
+                int start = TestGrids.randomOpen(g, queries);
+                int end = TestGrids.randomOpen(g, queries);
+                SearchResult expected = heap.solve(g, start, end);
+                SearchResult found = buckets.solve(g, start, end);
+                assertEquals(g.getClass().getSimpleName(), expected.isReachable(), found.isReachable());
+                assertEquals(g.getClass().getSimpleName(), expected.getCost(), found.getCost());
+            }
+        }
+    }
+
+    @Test
+    public void costsPastTheIntRangeAreReachedButNotNarrowed() {
+        // 899999 moves of 10 * 255 cost more than Integer.MAX_VALUE
+        int width = 900_000;
+        GridGraph g = new GridGraph(new BitGrid(width, 1, true), false);
+        for (int x = 0; x < width; x++)
+            g.setCost(x, 0, 255);
+
+        Dial dial = new Dial();
+        Dijkstra dijkstra = new Dijkstra(EdgeCost.terrain(g));
+        assertEquals(dijkstra.solve(g, 0, 1000).getCost(), dial.solve(g, 0, 1000).getCost());
+
+        dial.solve(g, 0);
+        assertTrue(dial.checkPath(width - 1));
+        assertEquals(width, dial.getPath(0, width - 1).length);
+        assertThrows(ArithmeticException.class, () -> dial.getCost(0, width - 1));
+
+        BidirectionalDijkstra bidirectional = new BidirectionalDijkstra(EdgeCost.terrain(g));
+        assertEquals(dijkstra.solve(g, 0, 1000).getCost(), bidirectional.solve(g, 0, 1000).getCost());
+
+        bidirectional.solve(g, 0);
+        assertTrue(bidirectional.checkPath(width - 1));
+        assertEquals(width, bidirectional.getPath(0, width - 1).length);
+        assertThrows(ArithmeticException.class, () -> bidirectional.getCost(0, width - 1));
+
+        // The result captures the cost, so the point query itself refuses to narrow it
+        assertThrows(ArithmeticException.class, () -> bidirectional.solve(g, 0, width - 1));
+        assertTrue(bidirectional.checkPath(width - 1));
+        assertEquals(width, bidirectional.getPath(0, width - 1).length);
+    }
+}
@@ -0,0 +1,71 @@
+package core.path;
+
+import core.graph.BitGrid;
+import core.graph.CsrGraph;
+import core.graph.Graph;
+import core.graph.GridGraph;
+import core.graph.Layout;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HPAStarTest {
+
+    private final int n = 300;
+    private final Graph g = new GridGraph(new BitGrid(Layout.RANDOM.generate(n, 0.2, 31)), true);
+    private final Random random = new Random(37);
+
+    @Test
+    public void agreesWithAStarOnReachabilityAndNeverBeatsIt() {
+        AStar aStar = new AStar();
+        HPAStar hierarchical = new HPAStar();
+        for (int q = 0; q < 200; q++)
+            assertNoBetterThanAStar(aStar, hierarchical, randomOpen(), randomOpen());
+    }
+
+    @Test
+    public void staysConsistentAfterCellsToggle() {
+        AStar aStar = new AStar();
+        HPAStar hierarchical = new HPAStar();
+        hierarchical.plan(g, randomOpen(), randomOpen());
+        for (int i = 0; i < 100; i++) {
+            int x = random.nextInt(n);
+            int y = random.nextInt(n);
+            g.setBlocked(x, y, g.isOpen(x, y));
+            hierarchical.cellChanged(x, y);
+            assertNoBetterThanAStar(aStar, hierarchical, randomOpen(), randomOpen());
+        }
+    }
+
+    @Test
+    public void wholeTreeMatchesBreadthFirst() {
+        Random trees = new Random(11);
+        for (int t = 0; t < 40; t++) {
+            BitGrid grid = TestGrids.randomGrid(trees, 3 + trees.nextInt(40), 3 + trees.nextInt(40), 0.25);
+            boolean diagonal = trees.nextBoolean();
+            Graph small = t % 2 == 0 ? new GridGraph(grid, diagonal) : new CsrGraph(grid, diagonal);
+            int start = TestGrids.randomOpen(small, trees);
+            HPAStar hierarchical = new HPAStar(8);
+            // A point query first, so the whole-tree search has to switch modes
+            hierarchical.solve(small, start, TestGrids.randomOpen(small, trees));
+            TestGrids.assertSameTreeAsBreadthFirst(hierarchical, small, start);
+        }
+    }
+
+    private void assertNoBetterThanAStar(AStar aStar, HPAStar hierarchical, int start, int end) {
+        SearchResult exact = aStar.solve(g, start, end);
+        SearchResult found = hierarchical.solve(g, start, end);
+        assertEquals(start + " to " + end, exact.isReachable(), found.isReachable());
+        if (exact.isReachable()) {
+            assertTrue(start + " to " + end, found.getCost() >= exact.getCost());
+            TestGrids.assertPath(g, found.getPath(), start, end);
+        }
+    }
+
+    private int randomOpen() {
+        return TestGrids.randomOpen(g, random);
+    }
+}
@@ -0,0 +1,55 @@
+package core.path;
+
+import core.graph.BitGrid;
+import core.graph.CsrGraph;
+import core.graph.Graph;
+import core.graph.GridGraph;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class JumpPointSearchTest {
+
+    @Test
+    public void pointToPointMatchesBreadthFirst() {
+        Random random = new Random(5);
+        for (boolean diagonal : new boolean[]{false, true}) {
+            for (int t = 0; t < 200; t++) {
+                BitGrid grid = TestGrids.randomGrid(random, 3 + random.nextInt(40), 3 + random.nextInt(40),
+                        0.1 + (0.3 * random.nextDouble()));
+                Graph g = new GridGraph(grid, diagonal);
+                BFS expected = new BFS();
+                JumpPointSearch jps = new JumpPointSearch();
+                for (int q = 0; q < 5; q++) {
+                    int start = TestGrids.randomOpen(g, random);
+                    int end = TestGrids.randomOpen(g, random);
+                    SearchResult exact = expected.solve(g, start, end);
+                    SearchResult found = jps.solve(g, start, end);
+                    String query = (diagonal ? "8-way " : "4-way ") + start + " to " + end;
+                    assertEquals(query, exact.isReachable(), found.isReachable());
+                    if (!exact.isReachable())
+                        continue;
+                    assertEquals(query, exact.getCost(), found.getCost());
+                    assertEquals(query, exact.getCost() + 1, found.getPathLength());
+                    TestGrids.assertPath(g, found.getPath(), start, end);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void wholeTreeMatchesBreadthFirst() {
+        Random random = new Random(11);
+        for (int t = 0; t < 40; t++) {
+            BitGrid grid = TestGrids.randomGrid(random, 3 + random.nextInt(40), 3 + random.nextInt(40), 0.25);
+            Graph g = t % 2 == 0 ? new GridGraph(grid, random.nextBoolean()) : new CsrGraph(grid, random.nextBoolean());
+            int start = TestGrids.randomOpen(g, random);
+            JumpPointSearch jps = new JumpPointSearch();
+            // A point query first, so the whole-tree search has to switch modes
+            jps.solve(g, start, TestGrids.randomOpen(g, random));
+            TestGrids.assertSameTreeAsBreadthFirst(jps, g, start);
+        }
+    }
+}
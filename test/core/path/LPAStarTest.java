@@ -0,0 +1,65 @@
+package core.path;
+
+import core.graph.BitGrid;
+import core.graph.Graph;
+import core.graph.GridGraph;
+import core.graph.Layout;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class LPAStarTest {
+
+    @Test
+    public void repairMatchesNewSearchAfterEveryToggle() {
+        int n = 150;
+        Graph g = new GridGraph(new BitGrid(Layout.RANDOM.generate(n, 0.2, 17)), true);
+        int start = 0;
+        int end = (n * n) - 1;
+        g.setBlocked(0, 0, false);
+        g.setBlocked(n - 1, n - 1, false);
+        Random random = new Random(19);
+
+        AStar aStar = new AStar();
+        LPAStar planner = new LPAStar();
+        planner.solve(g, start, end);
+        for (int i = 0; i < 200; i++) {
+            int x = random.nextInt(n);
+            int y = random.nextInt(n);
+            if ((y * n) + x == start || (y * n) + x == end)
+                continue;
+            g.setBlocked(x, y, g.isOpen(x, y));
+            planner.cellChanged(x, y);
+
+            SearchResult full = aStar.solve(g, start, end);
+            SearchResult repaired = planner.solve(g, start, end);
+            assertEquals("after edit " + i, full.isReachable(), repaired.isReachable());
+            assertEquals("after edit " + i, full.getCost(), repaired.getCost());
+            if (repaired.isReachable())
+                TestGrids.assertPath(g, repaired.getPath(), start, end);
+        }
+    }
+
+    @Test
+    public void wholeTreeRepairMatchesBreadthFirst() {
+        Random random = new Random(7);
+        for (boolean diagonal : new boolean[]{false, true}) {
+            int n = 40;
+            Graph g = new GridGraph(TestGrids.randomGrid(random, n, n, 0.25), diagonal);
+            g.setBlocked(0, 0, false);
+
+            LPAStar planner = new LPAStar();
+            // A point query first, so the whole-tree search has to switch modes
+            planner.solve(g, 0, TestGrids.randomOpen(g, random));
+            for (int i = 0; i < 20; i++) {
+                int x = 1 + random.nextInt(n - 1);
+                int y = random.nextInt(n);
+                g.setBlocked(x, y, g.isOpen(x, y));
+                planner.cellChanged(x, y);
+                TestGrids.assertSameTreeAsBreadthFirst(planner, g, 0);
+            }
+        }
+    }
+}
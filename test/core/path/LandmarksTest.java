@@ -0,0 +1,112 @@
+package core.path;
+
+import core.graph.BitGrid;
+import core.graph.Graph;
+import core.graph.GridGraph;
+import core.graph.Layout;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class LandmarksTest {
+
+    // Offsets in a saved file: the landmark count, then the width byte of the first landmark's table
+    private static final int COUNT_OFFSET = 21;
+    private static final int FIRST_WIDTH_OFFSET = 29;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final Graph g = new GridGraph(Layout.MAZE.generate(201, 0, 47), false);
+
+    @Test
+    public void altFindsTheSameCostsAsTheGridHeuristic() {
+        Landmarks alt = Landmarks.compute(g, 16);
+        AStar grid = new AStar();
+        AStar landmarks = new AStar(alt);
+        Random random = new Random(53);
+        long gridExpanded = 0;
+        long landmarkExpanded = 0;
+        for (int q = 0; q < 100; q++) {
+            int start = TestGrids.randomOpen(g, random);
+            int end = TestGrids.randomOpen(g, random);
+            int expected = grid.solve(g, start, end).getCost();
+            gridExpanded += grid.getStats().getNodesExpanded();
+            assertEquals(expected, landmarks.solve(g, start, end).getCost());
+            landmarkExpanded += landmarks.getStats().getNodesExpanded();
+        }
+        assertTrue("ALT expanded " + landmarkExpanded + " against " + gridExpanded, landmarkExpanded < gridExpanded);
+    }
+
+    @Test
+    public void tablesKeptWhilePickingMatchRecomputedOnes() {
+        assertSameTables(g, Landmarks.compute(g, 8), Landmarks.compute(g, Landmarks.select(g, 8)));
+
+        // A corridor longer than a char, so the tables of its two ends are wide
+        BitGrid corridor = new BitGrid(70000, 1, true);
+        Graph line = new GridGraph(corridor, false);
+        Landmarks picked = Landmarks.compute(line, 3);
+        assertSameTables(line, picked, Landmarks.compute(line, picked.getLandmarks()));
+        assertEquals(69999, picked.distance(0, 0) + picked.distance(0, 69999));
+    }
+
+    @Test
+    public void saveAndLoadKeepTheTables() throws IOException {
+        Landmarks alt = Landmarks.compute(g, 8);
+        Path file = folder.newFile("landmarks.alt").toPath();
+        alt.save(file);
+        assertSameTables(g, alt, Landmarks.load(file, g));
+    }
+
+    @Test
+    public void corruptFilesAreRejected() throws IOException {
+        Path file = folder.newFile("landmarks.alt").toPath();
+        Landmarks.compute(g, 4).save(file);
+        byte[] saved = Files.readAllBytes(file);
+
+        ByteBuffer negative = ByteBuffer.wrap(saved.clone()).order(ByteOrder.LITTLE_ENDIAN);
+        negative.putInt(COUNT_OFFSET, -1);
+        assertRejected(file, negative.array());
+
+        ByteBuffer tooMany = ByteBuffer.wrap(saved.clone()).order(ByteOrder.LITTLE_ENDIAN);
+        tooMany.putInt(COUNT_OFFSET, Integer.MAX_VALUE);
+        assertRejected(file, tooMany.array());
+
+        byte[] badWidth = saved.clone();
+        badWidth[FIRST_WIDTH_OFFSET] = 3;
+        assertRejected(file, badWidth);
+
+        // A table claimed to be wide that was written narrow reads past the end, unless the size is checked
+        byte[] widened = saved.clone();
+        widened[FIRST_WIDTH_OFFSET] = 4;
+        assertRejected(file, widened);
+
+        assertRejected(file, Arrays.copyOf(saved, saved.length - 1));
+        assertRejected(file, Arrays.copyOf(saved, saved.length + 1));
+    }
+
+    private void assertRejected(Path file, byte[] contents) throws IOException {
+        Files.write(file, contents);
+        assertThrows(IOException.class, () -> Landmarks.load(file, g));
+    }
+
+    private static void assertSameTables(Graph g, Landmarks expected, Landmarks actual) {
+        assertArrayEquals(expected.getLandmarks(), actual.getLandmarks());
+        for (int i = 0; i < expected.getCount(); i++)
+            for (int v = 0; v < g.getSize(); v++)
+                assertEquals(expected.distance(i, v), actual.distance(i, v));
+    }
+}
@@ -0,0 +1,154 @@
+package core.path;
+
+import core.graph.BitGrid;
+import core.graph.EdgeCost;
+import core.graph.Graph;
+import core.graph.GridGraph;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class PathCacheTest {
+
+    @Test
+    public void editsOnlyDropTheEntriesTheyAffect() {
+        // Open 10x10 grid, 4-way, so both rows are the only shortest paths between their ends
+        Graph g = new GridGraph(new BitGrid(10, 10, true), false);
+        PathCache cache = new PathCache(16);
+        AStar aStar = new AStar();
+        SearchResult top = cache.solve(aStar, g, 0, 9);
+        SearchResult bottom = cache.solve(aStar, g, 90, 99);
+        assertEquals(2, cache.getMisses());
+
+        g.setBlocked(5, 0, true);
+        cache.cellChanged(5, 0, true, g.getVersion());
+        assertEquals(1, cache.getInvalidations());
+        assertSame(bottom, cache.solve(aStar, g, 90, 99));
+        SearchResult detour = cache.solve(aStar, g, 0, 9);
+        assertEquals(11, detour.getCost());
+        assertEquals(1, cache.getHits());
+
+        // The detour can get shorter again through the opened cell, the bottom row can't
+        g.setBlocked(5, 0, false);
+        cache.cellChanged(5, 0, false, g.getVersion());
+        assertEquals(2, cache.getInvalidations());
+        assertSame(bottom, cache.solve(aStar, g, 90, 99));
+        assertEquals(9, cache.solve(aStar, g, 0, 9).getCost());
+        assertEquals(2, cache.getHits());
+
+        // Opening a cell far from both rows keeps them
+        g.setBlocked(5, 5, true);
+        cache.cellChanged(5, 5, true, g.getVersion());
+        g.setBlocked(5, 5, false);
+        cache.cellChanged(5, 5, false, g.getVersion());
+        assertEquals(2, cache.getInvalidations());
+        assertEquals(2, cache.size());
+        assertEquals(top.getCost(), cache.solve(aStar, g, 0, 9).getCost());
+        assertEquals(3, cache.getHits());
+    }
+
+    @Test
+    public void terrainCostsKeepEntriesAnOpenedCellCantImprove() {
+        // Open 10x10 grid, 4-way, where every move costs STRAIGHT_COST
+        Graph g = new GridGraph(new BitGrid(10, 10, true), false);
+        PathCache cache = new PathCache(16);
+        Dial dial = new Dial();
+        assertEquals(9 * Graph.STRAIGHT_COST, cache.solve(dial, g, 0, 9).getCost());
+
+        g.setBlocked(5, 0, true);
+        cache.cellChanged(5, 0, true, g.getVersion());
+        assertEquals(11 * Graph.STRAIGHT_COST, cache.solve(dial, g, 0, 9).getCost());
+
+        // 19 moves from the start to (5, 5) and on to the end cost more than the detour's 11
+        g.setBlocked(5, 5, true);
+        cache.cellChanged(5, 5, true, g.getVersion());
+        g.setBlocked(5, 5, false);
+        cache.cellChanged(5, 5, false, g.getVersion());
+        assertEquals(1, cache.getInvalidations());
+        assertEquals(1, cache.size());
+
+        // 9 moves through (5, 0) cost less
+        g.setBlocked(5, 0, false);
+        cache.cellChanged(5, 0, false, g.getVersion());
+        assertEquals(2, cache.getInvalidations());
+        assertEquals(9 * Graph.STRAIGHT_COST, cache.solve(dial, g, 0, 9).getCost());
+    }
+
+    @Test
+    public void cachedAnswersMatchFreshSearchesThroughEdits() {
+        Random random = new Random(29);
+        for (boolean diagonal : new boolean[]{false, true}) {
+            Graph g = new GridGraph(TestGrids.randomGrid(random, 40, 40, 0.25), diagonal);
+            matchFreshSearchesThroughEdits(random, g, new AStar(), new AStar());
+        }
+    }
+
+    @Test
+    public void cachedTerrainAnswersMatchFreshSearchesThroughEdits() {
+        Random random = new Random(31);
+        for (boolean diagonal : new boolean[]{false, true}) {
+            Graph g = new GridGraph(TestGrids.randomGrid(random, 40, 40, 0.25), diagonal);
+            for (int y = 0; y < g.getHeight(); y++)
+                for (int x = 0; x < g.getWidth(); x++)
+                    g.setCost(x, y, 1 + random.nextInt(9));
+            matchFreshSearchesThroughEdits(random, g, new Dial(), new Dijkstra(EdgeCost.terrain(g)));
+        }
+    }
+
+    /**
+     * Answers 30 queries through {@code cache} and {@code fresh} after each of 300 random cell toggles, and checks
+     * that blocking a cell drops exactly the cached paths through it.
+     */
+    private static void matchFreshSearchesThroughEdits(Random random, Graph g, PathFindingAlgorithm cached,
+                                                       PathFindingAlgorithm fresh) {
+        int n = g.getWidth();
+        int queries = 30;
+        int[] starts = new int[queries];
+        int[] ends = new int[queries];
+        for (int q = 0; q < queries; q++) {
+            starts[q] = TestGrids.randomOpen(g, random);
+            ends[q] = TestGrids.randomOpen(g, random);
+        }
+
+        PathCache cache = new PathCache(queries);
+        SearchResult[] last = new SearchResult[queries];
+        for (int edit = 0; edit < 300; edit++) {
+            for (int q = 0; q < queries; q++) {
+                last[q] = cache.solve(cached, g, starts[q], ends[q]);
+                SearchResult expected = fresh.solve(g, starts[q], ends[q]);
+                assertEquals("edit " + edit + " query " + q, expected.isReachable(), last[q].isReachable());
+                assertEquals("edit " + edit + " query " + q, expected.getCost(), last[q].getCost());
+                if (last[q].isReachable())
+                    TestGrids.assertPath(g, last[q].getPath(), starts[q], ends[q]);
+            }
+
+            int x = random.nextInt(n);
+            int y = random.nextInt(g.getHeight());
+            int node = (y * n) + x;
+            if (contains(starts, node) || contains(ends, node))
+                continue;
+            boolean blocked = g.isOpen(x, y);
+            // Blocking a cell drops exactly the paths through it
+            int through = 0;
+            for (SearchResult result : last)
+                if (blocked && contains(result.getPath(), node))
+                    through++;
+
+            long before = cache.getInvalidations();
+            g.setBlocked(x, y, blocked);
+            cache.cellChanged(x, y, blocked, g.getVersion());
+            if (blocked)
+                assertEquals("edit " + edit, through, cache.getInvalidations() - before);
+        }
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values)
+            if (v == value)
+                return true;
+        return false;
+    }
+}
@@ -0,0 +1,71 @@
+package core.path;
+
+import core.graph.BitGrid;
+import core.graph.CsrGraph;
+import core.graph.Graph;
+import core.graph.GridGraph;
+import core.graph.Layout;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SearchWorkspaceTest {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    public void searchesAllocateNothingOnceTheWorkspaceHasGrown() {
+        int n = 100;
+        boolean[][] cells = Layout.RANDOM.generate(n, 0.2, 3);
+        cells[0][0] = true;
+        Graph g = new GridGraph(cells, true);
+
+        PathFindingAlgorithm[] algorithms = {new DFS(), new BFS(), new BidirectionalBFS(), new Dijkstra(),
+                new BidirectionalDijkstra(), new BellmanFord(), new AStar(), new JumpPointSearch()};
+        for (PathFindingAlgorithm algo : algorithms) {
+            for (int i = 0; i < 3; i++)
+                algo.solve(g, 0);
+
+            long before = allocatedBytes();
+            for (int i = 0; i < 5; i++)
+                algo.solve(g, 0);
+            // Compiling a method can charge a few bytes to the thread, anything sized by the graph would be far more
+            long perSearch = (allocatedBytes() - before) / 5;
+            assertTrue(algo.getClass().getSimpleName() + " allocates " + perSearch + " bytes per search",
+                    perSearch < g.getSize());
+        }
+    }
+
+    @Test
+    public void sharedWorkspaceAnswersLikeFreshOnes() {
+        SearchWorkspace workspace = new SearchWorkspace();
+        // Run across the point where the stamps wrap around
+        workspace.stamp = Integer.MAX_VALUE - 20;
+        PathFindingAlgorithm[] shared = {new BFS(workspace), new Dijkstra(workspace), new AStar(workspace),
+                new JumpPointSearch(workspace), new BidirectionalBFS(workspace)};
+        Random random = new Random(23);
+        for (int t = 0; t < 60; t++) {
+            // Sizes go up and down, so later searches run on arrays left larger by earlier ones
+            BitGrid grid = TestGrids.randomGrid(random, 3 + random.nextInt(30), 3 + random.nextInt(30), 0.25);
+            boolean diagonal = random.nextBoolean();
+            Graph g = t % 2 == 0 ? new GridGraph(grid, diagonal) : new CsrGraph(grid, diagonal);
+            int start = TestGrids.randomOpen(g, random);
+            int end = TestGrids.randomOpen(g, random);
+            SearchResult expected = new BFS().solve(g, start, end);
+            for (PathFindingAlgorithm algo : shared) {
+                SearchResult found = algo.solve(g, start, end);
+                assertEquals(algo.getClass().getSimpleName(), expected.isReachable(), found.isReachable());
+                assertEquals(algo.getClass().getSimpleName(), expected.getCost(), found.getCost());
+            }
+        }
+    }
+
+    private static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,48 @@
+package core.path;
+
+import core.graph.CsrGraph;
+import core.graph.Graph;
+import core.graph.GridGraph;
+import core.graph.Layout;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertFalse;
+
+public class SeparatedRegionsTest {
+
+    @Test
+    public void nothingIsFoundThroughAWall() {
+        int n = 200;
+        boolean[][] cells = Layout.RANDOM.generate(n, 0.2, 41);
+        for (int y = 0; y < n; y++)
+            cells[y][n / 2] = false;
+
+        for (Graph g : new Graph[]{new GridGraph(cells, true), new CsrGraph(cells, true)}) {
+            PathFindingAlgorithm[] algorithms = {new BFS(), new BidirectionalBFS(), new Dijkstra(),
+                    new BidirectionalDijkstra(), new BellmanFord(), new AStar(), new JumpPointSearch(), new Dial(),
+                    new LPAStar(), new HPAStar()};
+            Random random = new Random(43);
+            for (int q = 0; q < 20; q++) {
+                int start = randomOpen(g, random, 0, n / 2);
+                int end = randomOpen(g, random, (n / 2) + 1, n);
+                for (PathFindingAlgorithm algo : algorithms)
+                    assertFalse(algo.getClass().getSimpleName() + " on " + g.getClass().getSimpleName(),
+                            algo.solve(g, start, end).isReachable());
+            }
+        }
+    }
+
+    /**
+     * Open node with its column in [from, to).
+     */
+    private static int randomOpen(Graph g, Random random, int from, int to) {
+        while (true) {
+            int x = from + random.nextInt(to - from);
+            int y = random.nextInt(g.getHeight());
+            if (g.isOpen(x, y))
+                return (y * g.getWidth()) + x;
+        }
+    }
+}
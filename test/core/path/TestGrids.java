@@ -0,0 +1,69 @@
+package core.path;
+
+import core.graph.BitGrid;
+import core.graph.Graph;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Random grids, queries and path checks shared by the path tests.
+ */
+final class TestGrids {
+
+    private TestGrids() {
+    }
+
+    /**
+     * {@code width} x {@code height} grid with every cell blocked with probability {@code density}.
+     */
+    static BitGrid randomGrid(Random random, int width, int height, double density) {
+        BitGrid grid = new BitGrid(width, height, true);
+        for (int y = 0; y < height; y++)
+            for (int x = 0; x < width; x++)
+                if (random.nextDouble() < density)
+                    grid.setBlocked(x, y, true);
+        return grid;
+    }
+
+    static int randomOpen(Graph g, Random random) {
+        while (true) {
+            int node = random.nextInt(g.getSize());
+            if (g.isOpen(node % g.getWidth(), node / g.getWidth()))
+                return node;
+        }
+    }
+
+    /**
+     * Asserts that {@code path} runs from {@code start} to {@code end} along edges of {@code g}.
+     */
+    static void assertPath(Graph g, int[] path, int start, int end) {
+        assertEquals("first node", start, path[0]);
+        assertEquals("last node", end, path[path.length - 1]);
+        for (int i = 0; i + 1 < path.length; i++)
+            assertTrue("no edge " + path[i] + " to " + path[i + 1], g.getNeighborsList(path[i]).contains(path[i + 1]));
+    }
+
+    /**
+     * Asserts that a whole-tree search of {@code algo} from {@code start} reaches the same nodes as a breadth first
+     * search, at the same number of moves and along valid paths.
+     */
+    static void assertSameTreeAsBreadthFirst(PathFindingAlgorithm algo, Graph g, int start) {
+        BFS expected = new BFS();
+        expected.solve(g, start);
+        algo.solve(g, start);
+        String name = algo.getClass().getSimpleName();
+        for (int v = 0; v < g.getSize(); v++) {
+            assertEquals(name + " node " + v, expected.checkPath(v), algo.checkPath(v));
+            if (!expected.checkPath(v))
+                continue;
+            int cost = expected.getCost(start, v);
+            assertEquals(name + " node " + v, cost, algo.getCost(start, v));
+            int[] path = algo.getPath(start, v);
+            assertEquals(name + " node " + v, cost + 1, path.length);
+            assertPath(g, path, start, v);
+        }
+    }
+}